@@ -72,7 +72,10 @@ server.port=5000
 spring.datasource.url=${RDS_JDBC_URL}
 spring.datasource.username=${RDS_USERNAME}
 spring.datasource.password=${RDS_PASSWORD}
-spring.jpa.hibernate.ddl-auto=update
+spring.flyway.locations=classpath:db/migration/{vendor}
+spring.flyway.baseline-on-migrate=true
+spring.flyway.baseline-version=1
+spring.jpa.hibernate.ddl-auto=validate
 spring.jpa.show-sql=false
 
 # JWT
@@ -0,0 +1,24 @@
+-- Product / StockTransaction id generation: IDENTITY -> pooled table generator
+--
+-- Run once against an existing database BEFORE deploying the version that uses
+-- @TableGenerator for products and stock_transactions. Safe to re-run.
+--
+-- Hibernate hands out ids in blocks of 50 read from id_generators.next_val. Each row
+-- is seeded one full block above the current MAX(id), so no generated id can collide
+-- with rows created under AUTO_INCREMENT. Gaps in the id sequence are expected.
+--
+-- The AUTO_INCREMENT attribute on the id columns is left in place: Hibernate now always
+-- supplies the id explicitly, and keeping it makes this change trivially reversible.
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    entity_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val    BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO id_generators (entity_name, next_val)
+SELECT 'products', COALESCE(MAX(id), 0) + 51 FROM products
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generators (entity_name, next_val)
+SELECT 'stock_transactions', COALESCE(MAX(id), 0) + 51 FROM stock_transactions
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
@@ -0,0 +1,17 @@
+-- Sharded stock for hot SKUs
+--
+-- products.stock_bucket_count: 0 for ordinary products; N > 0 when the product's stock
+-- is split across N rows of product_stock_buckets (enabled per product through
+-- POST /api/products/{id}/stock-shards?buckets=N).
+
+ALTER TABLE products
+    ADD COLUMN stock_bucket_count INT NOT NULL DEFAULT 0;
+
+CREATE TABLE product_stock_buckets (
+    id           BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    product_id   BIGINT NOT NULL,
+    bucket_index INT    NOT NULL,
+    quantity     INT    NOT NULL,
+    CONSTRAINT uk_product_stock_buckets_product_bucket UNIQUE (product_id, bucket_index),
+    CONSTRAINT fk_product_stock_buckets_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB;
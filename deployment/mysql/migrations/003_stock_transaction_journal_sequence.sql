@@ -0,0 +1,9 @@
+-- Write-behind stock ledger (stock.write-behind.enabled)
+--
+-- stock_transactions.journal_sequence: position of the row in the ledger's local journal,
+-- NULL for rows written directly. The unique key lets a journal replay after a crash skip
+-- transactions that had already been flushed.
+
+ALTER TABLE stock_transactions
+    ADD COLUMN journal_sequence BIGINT NULL,
+    ADD CONSTRAINT uk_stock_transactions_journal_sequence UNIQUE (journal_sequence);
@@ -0,0 +1,9 @@
+-- Keyset (cursor) pagination for the product and transaction lists
+--
+-- GET /api/products?after=... and GET /api/transactions?after=... read the next page as
+-- "rows strictly before (created_at, id)" / "(transaction_date, id)", newest first. These
+-- composite indexes turn every page into one range scan, however deep it is.
+
+CREATE INDEX idx_products_created_at_id ON products (created_at, id);
+
+CREATE INDEX idx_stock_transactions_date_id ON stock_transactions (transaction_date, id);
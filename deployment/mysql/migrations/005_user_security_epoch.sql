@@ -0,0 +1,8 @@
+-- Access-token revocation epoch
+--
+-- users.security_epoch is written into every access token. It is bumped whenever the
+-- username, password, role or enabled flag of the account changes; tokens carrying an
+-- older epoch are rejected without a per-request users lookup.
+
+ALTER TABLE users
+    ADD COLUMN security_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- Materialized low-stock flag
+--
+-- GET /api/products/low-stock used to compare stock_quantity with reorder_level on every
+-- row, which no index can serve. products.low_stock_candidate is kept up to date on every
+-- stock write (stock_quantity <= reorder_level, or always for sharded products), so the
+-- query reads only the flagged rows through idx_products_low_stock_candidate.
+
+ALTER TABLE products
+    ADD COLUMN low_stock_candidate BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE products
+SET low_stock_candidate = (stock_bucket_count > 0 OR stock_quantity <= reorder_level);
+
+CREATE INDEX idx_products_low_stock_candidate ON products (low_stock_candidate);
@@ -53,7 +53,7 @@ function DashboardPage() {
                 totalProducts: productsRes.productList?.length || 0,
                 totalCategories: categoriesRes.categoryList?.length || 0,
                 totalSuppliers: suppliersRes.supplierList?.length || 0,
-                lowStockProducts: lowStockRes.productList?.length || 0,
+                lowStockProducts: lowStockRes.totalElements ?? (lowStockRes.productList?.length || 0),
                 totalTransactions: transactionsRes.transactionList?.length || 0
             });
 
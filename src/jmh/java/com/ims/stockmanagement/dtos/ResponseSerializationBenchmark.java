@@ -0,0 +1,101 @@
+package com.ims.stockmanagement.dtos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ims.stockmanagement.enums.TransactionStatus;
+import com.ims.stockmanagement.enums.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the Response envelope with the ObjectMapper settings Spring
+ * Boot applies: a single sale (POST /api/transactions/sale) and a product page of 50
+ * rows (GET /api/products?size=50).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private Response saleResponse;
+    private Response productPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        TransactionDTO sale = new TransactionDTO(101L, 11L, "Dell XPS 13", "DELL-XPS-13", 7L, "jmh_user",
+                TransactionType.SALE, 2, new BigDecimal("1299.99"), new BigDecimal("2599.98"),
+                TransactionStatus.COMPLETED, "POS 3", LocalDateTime.of(2024, 5, 3, 14, 15));
+        saleResponse = Response.builder()
+                .statusCode(201)
+                .message("Transaction created successfully")
+                .transaction(sale)
+                .timestamp(LocalDateTime.of(2024, 5, 3, 14, 15, 1))
+                .build();
+
+        List<ProductDTO> products = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setId((long) i);
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setDescription("Description of product " + i);
+            product.setPrice(new BigDecimal("19.99"));
+            product.setStockQuantity(100 + i);
+            product.setReorderLevel(10);
+            product.setStockBucketCount(0);
+            product.setCategoryId(3L);
+            product.setCategoryName("Electronics");
+            product.setSupplierId(5L);
+            product.setSupplierName("Dell Technologies");
+            product.setCreatedByUsername("admin");
+            product.setCreatedAt(LocalDateTime.of(2024, 5, 1, 9, 0));
+            products.add(product);
+        }
+        productPage = Response.builder()
+                .statusCode(200)
+                .message("Products retrieved successfully")
+                .productList(products)
+                .page(0)
+                .size(PAGE_SIZE)
+                .totalPages(20)
+                .totalElements(1000L)
+                .timestamp(LocalDateTime.of(2024, 5, 3, 14, 15, 1))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] saleResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(saleResponse);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+}
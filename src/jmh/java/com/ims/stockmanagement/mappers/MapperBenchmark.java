@@ -0,0 +1,159 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.TransactionDTO;
+import com.ims.stockmanagement.enums.TransactionStatus;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.Supplier;
+import com.ims.stockmanagement.models.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-written mappers against the ModelMapper conversion they replaced (a plain
+ * new ModelMapper() plus the explicit relation fields the services used to set),
+ * for one row and for a 100-row page as returned by the list endpoints.
+ *
+ * ./gradlew jmh -Pjmh.includes=MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private TransactionMapper transactionMapper;
+    private Product product;
+    private StockTransaction transaction;
+    private List<Product> productPage;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        productMapper = new ProductMapper();
+        transactionMapper = new TransactionMapper();
+
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("jmh_user");
+        user.setEmail("jmh_user@example.com");
+        user.setFullName("JMH User");
+        user.setRole(UserRole.USER);
+
+        Category category = new Category();
+        category.setId(3L);
+        category.setName("Electronics");
+
+        Supplier supplier = new Supplier();
+        supplier.setId(5L);
+        supplier.setName("Dell Technologies");
+
+        productPage = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Product row = new Product();
+            row.setId(11L + i);
+            row.setName("Dell XPS 13 #" + i);
+            row.setSku("DELL-XPS-13-" + i);
+            row.setDescription("13 inch ultrabook");
+            row.setPrice(new BigDecimal("1299.99"));
+            row.setStockQuantity(42);
+            row.setReorderLevel(5);
+            row.setCategory(category);
+            row.setSupplier(supplier);
+            row.setCreatedBy(user);
+            row.setCreatedAt(LocalDateTime.of(2024, 5, 1, 9, 0));
+            row.setUpdatedAt(LocalDateTime.of(2024, 5, 2, 9, 0));
+            productPage.add(row);
+        }
+        product = productPage.get(0);
+
+        transaction = new StockTransaction();
+        transaction.setId(101L);
+        transaction.setProduct(product);
+        transaction.setUser(user);
+        transaction.setTransactionType(TransactionType.SALE);
+        transaction.setQuantity(2);
+        transaction.setUnitPrice(new BigDecimal("1299.99"));
+        transaction.setTotalPrice(new BigDecimal("2599.98"));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setNotes("POS 3");
+        transaction.setTransactionDate(LocalDateTime.of(2024, 5, 3, 14, 15));
+    }
+
+    @Benchmark
+    public ProductDTO productModelMapper() {
+        return modelMapperProduct(product);
+    }
+
+    @Benchmark
+    public ProductDTO productHandWritten() {
+        return productMapper.toDTO(product);
+    }
+
+    @Benchmark
+    public TransactionDTO transactionModelMapper() {
+        return modelMapperTransaction(transaction);
+    }
+
+    @Benchmark
+    public TransactionDTO transactionHandWritten() {
+        return transactionMapper.toDTO(transaction);
+    }
+
+    @Benchmark
+    public List<ProductDTO> productPageModelMapper() {
+        return productPage.stream().map(this::modelMapperProduct).toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> productPageHandWritten() {
+        return productPage.stream().map(productMapper::toDTO).toList();
+    }
+
+    private ProductDTO modelMapperProduct(Product source) {
+        ProductDTO dto = modelMapper.map(source, ProductDTO.class);
+        dto.setCategoryId(source.getCategory().getId());
+        dto.setCategoryName(source.getCategory().getName());
+        dto.setSupplierId(source.getSupplier().getId());
+        dto.setSupplierName(source.getSupplier().getName());
+        dto.setCreatedByUserId(source.getCreatedBy().getId());
+        dto.setCreatedByUsername(source.getCreatedBy().getUsername());
+        dto.setStockQuantity(source.getStockQuantity());
+        return dto;
+    }
+
+    private TransactionDTO modelMapperTransaction(StockTransaction source) {
+        TransactionDTO dto = modelMapper.map(source, TransactionDTO.class);
+        dto.setProductId(source.getProduct().getId());
+        dto.setProductName(source.getProduct().getName());
+        dto.setProductSku(source.getProduct().getSku());
+        dto.setUserId(source.getUser().getId());
+        dto.setUsername(source.getUser().getUsername());
+        return dto;
+    }
+}
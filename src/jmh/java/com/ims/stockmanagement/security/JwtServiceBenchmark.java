@@ -0,0 +1,101 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token work of JwtAuthenticationFilter, before and after:
+ *
+ * legacyFilterPath  - what the filter used to do: extractUsername, then isTokenValid
+ *                     (which parsed the token twice more), each parse rebuilding the
+ *                     SecretKey and the parser
+ * parseAndValidate  - one parse with the prebuilt key and parser
+ * cachedToken       - a token already in VerifiedTokenCache (SHA-256 + map lookup), checked
+ *                     against SecurityEpochRegistry: the whole per-request cost today
+ *
+ * The users query the legacy path also ran per request is not included.
+ *
+ * ./gradlew jmh -Pjmh.includes=JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256-signing";
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private SecurityEpochRegistry securityEpochRegistry;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000L);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("jmh_user");
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        token = jwtService.generateToken(user);
+
+        verifiedTokenCache = new VerifiedTokenCache();
+        verifiedTokenCache.put(token, jwtService.parseAndValidate(token));
+        securityEpochRegistry = new SecurityEpochRegistry(null);
+        securityEpochRegistry.update(user);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public JwtService.TokenClaims parseAndValidate() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public boolean cachedToken() {
+        JwtService.TokenClaims claims = verifiedTokenCache.get(token);
+        AccountSecurityState account = securityEpochRegistry.current(claims.userId());
+        return account.enabled() && account.securityEpoch() == claims.securityEpoch();
+    }
+
+    /**
+     * The former JwtService.extractAllClaims: key and parser rebuilt for every call.
+     */
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,154 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.StockManagementApplication;
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.Response;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search on a generated catalog in embedded H2:
+ *
+ * likeQuery      - the former GET /api/products/search: LOWER(name/sku) LIKE '%keyword%',
+ *                  a full table scan returning every match
+ * indexSearch    - ProductSearchIndex alone: candidates, verification, ranking, first page
+ * searchProducts - what the endpoint does now: the index plus one IN query for the page
+ * suggest        - GET /api/products/suggest for a partial SKU (two sorted-map range scans)
+ *
+ * "laptop" matches about 1/16 of the catalog, "mon-424242" a single SKU. H2 shows the
+ * relative cost; absolute numbers need MySQL.
+ *
+ * ./gradlew jmh -Pjmh.includes=ProductSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final String[] ADJECTIVES = {
+            "Wireless", "Gaming", "Compact", "Ergonomic", "Portable", "Industrial", "Smart", "Premium"};
+    private static final String[] NOUNS = {
+            "Mouse", "Keyboard", "Monitor", "Laptop", "Cable", "Adapter", "Router", "Printer",
+            "Scanner", "Headset", "Speaker", "Charger", "Drill", "Pallet", "Label", "Shelf"};
+    private static final int INSERT_BATCH = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String SKU_PREFIX = "MON-4242";
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    @Param({"laptop", "mon-424242"})
+    public String keyword;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductSearchIndex productSearchIndex;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StockManagementApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:jmh-search;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--product-search.index.rebuild-ms=3600000",
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.ims.stockmanagement=WARN");
+
+        productRepository = context.getBean(ProductRepository.class);
+        productSearchIndex = context.getBean(ProductSearchIndex.class);
+        productService = context.getBean(ProductService.class);
+
+        Category category = new Category();
+        category.setName("jmh-search-category");
+        category = context.getBean(CategoryRepository.class).save(category);
+        insertCatalog(context.getBean(JdbcTemplate.class), category.getId());
+
+        productSearchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> likeQuery() {
+        return productRepository.findDTOsByNameOrSkuContaining(keyword, Pageable.unpaged()).getContent();
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchPage indexSearch() {
+        return productSearchIndex.searchNameOrSku(keyword, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Response searchProducts() {
+        return productService.searchProducts(keyword, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Response suggest() {
+        return productService.suggestProducts(SKU_PREFIX, null);
+    }
+
+    /**
+     * Plain JDBC batches: going through Hibernate would take minutes for a million rows.
+     * Ids start far above anything the table generator hands out.
+     */
+    private void insertCatalog(JdbcTemplate jdbcTemplate, Long categoryId) {
+        String sql = "INSERT INTO products (id, name, sku, price, stock_quantity, reorder_level, " +
+                "stock_bucket_count, low_stock_candidate, category_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0, false, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < catalogSize; i++) {
+            String noun = NOUNS[i % NOUNS.length];
+            String name = ADJECTIVES[(i / NOUNS.length) % ADJECTIVES.length] + " " + noun + " " + (i % 997);
+            String sku = noun.substring(0, 3).toUpperCase() + "-" + i;
+            batch.add(new Object[]{1_000_000_000L + i, name, sku, new BigDecimal("10.00"), 100, 10, categoryId, now});
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ims.stockmanagement.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One TRY -> EUR price conversion: the RateTable path (index lookups, one multiply)
+ * against the old one, which dug the rate out of the deserialized Map<String, Object>
+ * payload, boxed it as a Double and converted it back to BigDecimal on every call.
+ * Both start from an already fetched document; the HTTP call is not measured.
+ *
+ * ./gradlew jmh -Pjmh.includes=RateTableBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateTableBenchmark {
+
+    private static final int CURRENCIES = 160;
+
+    private final BigDecimal price = new BigDecimal("1499.90");
+    private Map<String, Object> payload;
+    private RateTable rateTable;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> payloadRates = new LinkedHashMap<>();
+        Map<String, BigDecimal> tableRates = new LinkedHashMap<>();
+        for (int i = 0; i < CURRENCIES; i++) {
+            String code = "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26) + 'X';
+            double rate = 0.5 + i * 0.25;
+            payloadRates.put(code, rate);
+            tableRates.put(code, BigDecimal.valueOf(rate));
+        }
+        payloadRates.put("TRY", 1.0);
+        payloadRates.put("EUR", 0.0262);
+        tableRates.put("TRY", BigDecimal.ONE);
+        tableRates.put("EUR", new BigDecimal("0.0262"));
+
+        payload = new LinkedHashMap<>();
+        payload.put("base", "TRY");
+        payload.put("rates", payloadRates);
+        rateTable = new RateTable(tableRates);
+    }
+
+    @Benchmark
+    public BigDecimal rateTable() {
+        BigDecimal rate = rateTable.rate(rateTable.indexOf("TRY"), rateTable.indexOf("EUR"));
+        return price.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal mapPayload() {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> rates = (Map<String, Object>) payload.get("rates");
+        Object rateObj = rates.get("EUR");
+        Double rate = ((Number) rateObj).doubleValue();
+        return price.multiply(BigDecimal.valueOf(rate)).setScale(2, RoundingMode.HALF_UP);
+    }
+}
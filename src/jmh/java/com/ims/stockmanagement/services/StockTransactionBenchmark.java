@@ -0,0 +1,173 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.StockManagementApplication;
+import com.ims.stockmanagement.dtos.Response;
+import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StockTransactionService.createTransaction (SALE, default PESSIMISTIC locking) on an
+ * embedded H2 database. "single": every thread sells the same SKU, so all sales queue
+ * on one row lock. "spread": each sale picks one of 64 SKUs at random. JMH fixes the
+ * thread count per benchmark method, hence one method per thread count.
+ *
+ * H2 shows the relative cost of contention; absolute numbers need MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StockTransactionBenchmark {
+
+    private static final int SPREAD_SKUS = 64;
+    // Large enough that no iteration can sell a SKU out
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    @Param({"single", "spread"})
+    public String skuLayout;
+
+    private ConfigurableApplicationContext context;
+    private StockTransactionService stockTransactionService;
+    private StockTransactionRepository stockTransactionRepository;
+    private User seller;
+    private Long[] productIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StockManagementApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.ims.stockmanagement=WARN");
+
+        stockTransactionService = context.getBean(StockTransactionService.class);
+        stockTransactionRepository = context.getBean(StockTransactionRepository.class);
+        seller = persistSeller(context.getBean(UserRepository.class));
+
+        Category category = new Category();
+        category.setName("jmh-category");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        productIds = new Long[SPREAD_SKUS];
+        for (int i = 0; i < SPREAD_SKUS; i++) {
+            Product product = new Product();
+            product.setName("JMH Product " + i);
+            product.setSku("JMH-" + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(INITIAL_STOCK);
+            product.setReorderLevel(0);
+            product.setCategory(category);
+            productIds[i] = productRepository.save(product).getId();
+        }
+    }
+
+    /** Keeps the in-memory ledger from growing across iterations. */
+    @TearDown(Level.Iteration)
+    public void trimLedger() {
+        stockTransactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * Per-thread authentication: the service takes the actor from the security context.
+     */
+    @State(Scope.Thread)
+    public static class Seller {
+
+        @Setup(Level.Trial)
+        public void authenticate(StockTransactionBenchmark benchmark) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    benchmark.seller, null, benchmark.seller.getAuthorities()));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Response sale01Thread(Seller seller) {
+        return sell();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Response sale04Threads(Seller seller) {
+        return sell();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Response sale16Threads(Seller seller) {
+        return sell();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Response sale64Threads(Seller seller) {
+        return sell();
+    }
+
+    private Response sell() {
+        TransactionRequest request = new TransactionRequest();
+        request.setProductId("single".equals(skuLayout)
+                ? productIds[0]
+                : productIds[ThreadLocalRandom.current().nextInt(SPREAD_SKUS)]);
+        request.setTransactionType(TransactionType.SALE);
+        request.setQuantity(1);
+        return stockTransactionService.createTransaction(request);
+    }
+
+    private User persistSeller(UserRepository userRepository) {
+        User user = new User();
+        user.setUsername("jmh_seller");
+        user.setEmail("jmh_seller@example.com");
+        user.setPassword("not-used-in-this-benchmark");
+        user.setFullName("JMH Seller");
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+}
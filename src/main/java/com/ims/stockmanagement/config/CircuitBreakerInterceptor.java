@@ -0,0 +1,129 @@
+package com.ims.stockmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Circuit breaker for an outbound HTTP dependency.
+ *
+ * CLOSED: requests pass; failureThreshold consecutive failures (I/O error, timeout or
+ * 5xx) open the circuit. OPEN: requests fail immediately with a ResourceAccessException,
+ * without touching the network, for openDuration. HALF_OPEN: one trial request is let
+ * through; its success closes the circuit, its failure opens it again.
+ *
+ * Publishes http.client.circuit.state (0 closed, 1 open, 2 half-open) and
+ * http.client.circuit.rejected, both tagged with the breaker name.
+ */
+@Slf4j
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Counter rejected;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreakerInterceptor(String name, int failureThreshold, Duration openDuration,
+                                     MeterRegistry meterRegistry) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        Gauge.builder("http.client.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .tag("name", name)
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("http.client.circuit.rejected")
+                .tag("name", name)
+                .description("Requests failed fast by an open circuit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new ResourceAccessException("Circuit breaker '" + name + "' is open, not calling " + request.getURI());
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            onFailure();
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+        return response;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit breaker '{}' closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Circuit breaker '{}' opened after {} consecutive failures", name, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+}
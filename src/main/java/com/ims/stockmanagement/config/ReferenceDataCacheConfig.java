@@ -0,0 +1,86 @@
+package com.ims.stockmanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for reference data (Category, Supplier), held in local
+ * Caffeine caches through JCache.
+ *
+ * Entities are cached read-write: every create/update/delete that goes through Hibernate
+ * (CategoryService, SupplierService) updates or evicts its entry, and the cached findAll
+ * results are invalidated as soon as either table is written. Changes made by another
+ * instance or directly in the database show up within reference-data.cache.ttl-ms.
+ *
+ * Hit/miss counts are published as hibernate.second.level.cache.requests and
+ * hibernate.query.cache.requests (tags region, result).
+ */
+@Configuration
+public class ReferenceDataCacheConfig {
+
+    public static final String CATEGORY_REGION = "categories";
+    public static final String SUPPLIER_REGION = "suppliers";
+    public static final String QUERY_REGION = "reference-data-queries";
+
+    // Hibernate's own regions: unused query results, and the per-table last-write times
+    private static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+    private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${reference-data.cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${reference-data.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceDataCacheManager() {
+        // Own URI per application context, so test contexts never share (or close) each other's caches
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ims-reference-data-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(CATEGORY_REGION, bounded());
+        cacheManager.createCache(SUPPLIER_REGION, bounded());
+        cacheManager.createCache(QUERY_REGION, bounded());
+        cacheManager.createCache(DEFAULT_QUERY_REGION, bounded());
+        // Must never lose an entry before the query results that depend on it
+        cacheManager.createCache(TIMESTAMPS_REGION, unbounded());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceDataCacheProperties(CacheManager referenceDataCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", referenceDataCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+            // Feeds the hit/miss meters
+            properties.put("hibernate.generate_statistics", true);
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> bounded() {
+        CaffeineConfiguration<Object, Object> configuration = unbounded();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> unbounded() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -1,19 +1,91 @@
 package com.ims.stockmanagement.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
+/**
+ * Outbound HTTP (exchange-rate API): a pooled keep-alive client with strict timeouts and a
+ * circuit breaker, so a slow or failing upstream costs at most the timeouts per request
+ * while it is failing and nothing at all once the circuit is open.
+ *
+ * Built through RestTemplateBuilder, so requests are timed as http.client.requests
+ * (percentile histogram enabled in application.properties).
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${outbound.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${outbound.http.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${outbound.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${outbound.http.read-timeout-ms:3000}")
+    private long readTimeoutMs;
+
+    @Value("${outbound.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("${outbound.http.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${outbound.http.circuit-breaker.open-ms:30000}")
+    private long circuitOpenMs;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient() {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                // Waiting for a free pooled connection counts against the connect budget
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        .setDefaultConnectionConfig(connectionConfig)
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);  // 5 seconds connection timeout
-        factory.setReadTimeout(10000);    // 10 seconds read timeout
-        return new RestTemplate(factory);
+    public CircuitBreakerInterceptor exchangeRateCircuitBreaker(MeterRegistry meterRegistry) {
+        return new CircuitBreakerInterceptor("exchange-rate-api", failureThreshold,
+                Duration.ofMillis(circuitOpenMs), meterRegistry);
     }
-}
 
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient,
+                                     CircuitBreakerInterceptor exchangeRateCircuitBreaker) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(outboundHttpClient))
+                .additionalInterceptors(exchangeRateCircuitBreaker)
+                .build();
+    }
+}
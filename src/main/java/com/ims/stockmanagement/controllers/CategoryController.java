@@ -4,14 +4,18 @@ import com.ims.stockmanagement.dtos.CategoryDTO;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.services.CategoryService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
+@Validated
 public class CategoryController {
 
     private final CategoryService categoryService;
@@ -25,8 +29,12 @@ public class CategoryController {
 
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Response> getAllCategories() {
-        Response response = categoryService.getAllCategories();
+    public ResponseEntity<Response> getAllCategories(
+            @RequestParam(required = false) @Min(0) Integer page,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer size) {
+        Response response = page == null && size == null
+                ? categoryService.getAllCategories()
+                : categoryService.getAllCategories(page != null ? page : 0, size != null ? size : 20);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -5,6 +5,7 @@ import com.ims.stockmanagement.dtos.ProductUpdateRequest;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.services.ExternalApiService;
 import com.ims.stockmanagement.services.ProductService;
+import com.ims.stockmanagement.services.ShardedStockService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -43,21 +44,52 @@ public class ProductController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Offset pages (page, size, sortBy) by default. With after or limit the list is
+     * keyset-paginated instead: newest first, no totals, nextCursor for the following page.
+     * With currency every product also carries convertedPrice in that currency.
+     */
     @GetMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getAllProducts(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy) {
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer limit,
+            @RequestParam(required = false) @Pattern(regexp = "^[A-Za-z]{3}$", message = "Invalid currency code") String currency) {
+
+        Response response;
+        if (after != null || limit != null) {
+            response = productService.getProductsAfter(after, limit != null ? limit : size);
+        } else {
+            // Validate sortBy field to prevent injection
+            String safeSortBy = ALLOWED_SORT_FIELDS.contains(sortBy) ? sortBy : "createdAt";
 
-        // Validate sortBy field to prevent injection
-        String safeSortBy = ALLOWED_SORT_FIELDS.contains(sortBy) ? sortBy : "createdAt";
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, safeSortBy));
+            response = productService.getAllProducts(pageable);
+        }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, safeSortBy));
-        Response response = productService.getAllProducts(pageable);
+        if (currency != null) {
+            return withConvertedPrices(response, currency);
+        }
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * A page of products with prices converted to the given currency: the same query as
+     * GET /api/products and a single exchange-rate lookup for the whole page.
+     */
+    @GetMapping("/prices/{currency}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> getProductPricesInCurrency(
+            @PathVariable @Pattern(regexp = "^[A-Za-z]{3}$", message = "Invalid currency code") String currency,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy) {
+        return getAllProducts(page, size, sortBy, null, null, currency);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getProductById(@PathVariable Long id) {
@@ -65,10 +97,16 @@ public class ProductController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Name or SKU contains the keyword; best matches first (exact SKU, SKU prefix, name
+     * prefix, word in the name, anywhere), one page at a time.
+     */
     @GetMapping("/search")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> searchProducts(
-            @RequestParam @Pattern(regexp = "^[a-zA-Z0-9\\s\\-_]+$", message = "Invalid search keyword") String keyword) {
+            @RequestParam @Pattern(regexp = "^[a-zA-Z0-9\\s\\-_]+$", message = "Invalid search keyword") String keyword,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return ResponseEntity.badRequest().body(Response.builder()
                     .statusCode(400)
@@ -76,21 +114,39 @@ public class ProductController {
                     .timestamp(LocalDateTime.now())
                     .build());
         }
-        Response response = productService.searchProducts(keyword.trim());
+        Response response = productService.searchProducts(keyword.trim(), page, size);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Autocomplete for scanners and search boxes: id, sku and name of the products whose SKU,
+     * then whose name, starts with the prefix.
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> suggestProducts(
+            @RequestParam @Pattern(regexp = "^[a-zA-Z0-9\\s\\-_]+$", message = "Invalid search prefix") String prefix,
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        Response response = productService.suggestProducts(prefix, limit);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @GetMapping("/category/{categoryId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Response> getProductsByCategory(@PathVariable Long categoryId) {
-        Response response = productService.getProductsByCategory(categoryId);
+    public ResponseEntity<Response> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        Response response = productService.getProductsByCategory(categoryId, page, size);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Response> getLowStockProducts() {
-        Response response = productService.getLowStockProducts();
+    public ResponseEntity<Response> getLowStockProducts(
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        Response response = productService.getLowStockProducts(page, size);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -108,6 +164,26 @@ public class ProductController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Marks a hot SKU: its stock is split over N bucket rows so concurrent sales stop
+     * serializing on a single Product row.
+     */
+    @PostMapping("/{id}/stock-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response> enableStockSharding(
+            @PathVariable Long id,
+            @RequestParam @Min(ShardedStockService.MIN_BUCKETS) @Max(ShardedStockService.MAX_BUCKETS) int buckets) {
+        Response response = productService.enableStockSharding(id, buckets);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @DeleteMapping("/{id}/stock-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response> disableStockSharding(@PathVariable Long id) {
+        Response response = productService.disableStockSharding(id);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @GetMapping("/{id}/price/{currency}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getProductPriceInCurrency(
@@ -157,6 +233,21 @@ public class ProductController {
         }
     }
 
+    private ResponseEntity<Response> withConvertedPrices(Response response, String currency) {
+        String targetCurrency = currency.toUpperCase();
+        try {
+            externalApiService.convertPrices(response.getProductList(), "TRY", targetCurrency);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Response.builder()
+                    .statusCode(503)
+                    .message("Currency conversion failed: " + e.getMessage())
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+        response.setCurrency(targetCurrency);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @GetMapping("/currencies")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getSupportedCurrencies() {
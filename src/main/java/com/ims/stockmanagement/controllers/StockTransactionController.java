@@ -1,10 +1,14 @@
 package com.ims.stockmanagement.controllers;
 
+import com.ims.stockmanagement.dtos.BatchTransactionRequest;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.ExportFormat;
 import com.ims.stockmanagement.enums.TransactionStatus;
 import com.ims.stockmanagement.enums.TransactionType;
 import com.ims.stockmanagement.services.StockTransactionService;
+import com.ims.stockmanagement.services.TransactionExportService;
+import com.ims.stockmanagement.services.WriteBehindStockLedger;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -13,10 +17,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +36,8 @@ import java.util.List;
 public class StockTransactionController {
 
     private final StockTransactionService transactionService;
+    private final WriteBehindStockLedger writeBehindStockLedger;
+    private final TransactionExportService transactionExportService;
 
     // Allowed sort fields whitelist
     private static final List<String> ALLOWED_SORT_FIELDS = List.of(
@@ -44,6 +54,8 @@ public class StockTransactionController {
                     .message("Transaction type is required")
                     .timestamp(LocalDateTime.now())
                     .build();
+        } else if (writeBehindStockLedger.isEnabled()) {
+            response = writeBehindStockLedger.submit(request);
         } else {
             switch (request.getTransactionType()) {
                 case PURCHASE:
@@ -69,23 +81,58 @@ public class StockTransactionController {
     @PostMapping("/purchase")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> purchaseProduct(@Valid @RequestBody TransactionRequest request) {
-        Response response = transactionService.purchaseProduct(request);
+        Response response;
+        if (writeBehindStockLedger.isEnabled()) {
+            request.setTransactionType(TransactionType.PURCHASE);
+            response = writeBehindStockLedger.submit(request);
+        } else {
+            response = transactionService.purchaseProduct(request);
+        }
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @PostMapping("/sale")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> saleProduct(@Valid @RequestBody TransactionRequest request) {
-        Response response = transactionService.saleProduct(request);
+        Response response;
+        if (writeBehindStockLedger.isEnabled()) {
+            request.setTransactionType(TransactionType.SALE);
+            response = writeBehindStockLedger.submit(request);
+        } else {
+            response = transactionService.saleProduct(request);
+        }
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Applies many transactions under one lock pass. Answers 201 when every line was
+     * applied and 207 when some lines were rejected; per-line outcomes are in batchResults.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> createTransactionBatch(@Valid @RequestBody BatchTransactionRequest request) {
+        writeBehindStockLedger.requireDisabled("Batch transactions");
+        Response response = transactionService.createTransactionBatch(request);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Offset pages (page, size, sortBy) by default. With after or limit the list is
+     * keyset-paginated instead: newest first, no totals, nextCursor for the following page.
+     */
     @GetMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getAllTransactions(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
-            @RequestParam(defaultValue = "transactionDate") String sortBy) {
+            @RequestParam(defaultValue = "transactionDate") String sortBy,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer limit) {
+
+        if (after != null || limit != null) {
+            Response response = transactionService.getTransactionsAfter(after, limit != null ? limit : size);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
 
         // Validate sortBy field to prevent injection
         String safeSortBy = ALLOWED_SORT_FIELDS.contains(sortBy) ? sortBy : "transactionDate";
@@ -95,6 +142,35 @@ public class StockTransactionController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Streams the whole ledger, or from <= transactionDate < to, oldest first, as NDJSON or
+     * CSV. Rows are written as they come off the database cursor, so memory does not grow
+     * with the range; gzip=true compresses the stream (Content-Encoding: gzip).
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "ndjson") @Pattern(regexp = "^(?i)(ndjson|csv)$", message = "Invalid format. Must be ndjson or csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        // Checked before streaming starts: afterwards the status line is already sent
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase());
+
+        StreamingResponseBody body = out -> transactionExportService.export(exportFormat, from, to, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getFileExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getTransactionById(@PathVariable Long id) {
@@ -104,25 +180,33 @@ public class StockTransactionController {
 
     @GetMapping("/product/{productId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Response> getTransactionsByProduct(@PathVariable Long productId) {
-        Response response = transactionService.getTransactionsByProduct(productId);
+    public ResponseEntity<Response> getTransactionsByProduct(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        Response response = transactionService.getTransactionsByProduct(productId, after, limit);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Response> getTransactionsByUser(@PathVariable Long userId) {
-        Response response = transactionService.getTransactionsByUser(userId);
+    public ResponseEntity<Response> getTransactionsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        Response response = transactionService.getTransactionsByUser(userId, after, limit);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @GetMapping("/by-type/{type}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Response> getTransactionsByType(
-            @PathVariable @Pattern(regexp = "^(PURCHASE|SALE|ADJUSTMENT)$", message = "Invalid type. Must be PURCHASE, SALE, or ADJUSTMENT") String type) {
+            @PathVariable @Pattern(regexp = "^(PURCHASE|SALE|ADJUSTMENT)$", message = "Invalid type. Must be PURCHASE, SALE, or ADJUSTMENT") String type,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
         try {
             TransactionType transactionType = TransactionType.valueOf(type.toUpperCase());
-            Response response = transactionService.getTransactionsByType(transactionType);
+            Response response = transactionService.getTransactionsByType(transactionType, after, limit);
             return ResponseEntity.status(response.getStatusCode()).body(response);
         } catch (IllegalArgumentException e) {
             Response response = Response.builder()
@@ -155,6 +239,7 @@ public class StockTransactionController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Response> deleteTransaction(@PathVariable Long id) {
+        writeBehindStockLedger.requireDisabled("Deleting transactions");
         Response response = transactionService.deleteTransaction(id);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
@@ -4,14 +4,18 @@ import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.dtos.SupplierDTO;
 import com.ims.stockmanagement.services.SupplierService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/suppliers")
 @RequiredArgsConstructor
+@Validated
 public class SupplierController {
 
     private final SupplierService supplierService;
@@ -25,8 +29,12 @@ public class SupplierController {
 
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Response> getAllSuppliers() {
-        Response response = supplierService.getAllSuppliers();
+    public ResponseEntity<Response> getAllSuppliers(
+            @RequestParam(required = false) @Min(0) Integer page,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer size) {
+        Response response = page == null && size == null
+                ? supplierService.getAllSuppliers()
+                : supplierService.getAllSuppliers(page != null ? page : 0, size != null ? size : 20);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -4,16 +4,24 @@ import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.dtos.UserDTO;
 import com.ims.stockmanagement.dtos.UserProfileUpdateRequest;
 import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.mappers.UserMapper;
 import com.ims.stockmanagement.models.User;
 import com.ims.stockmanagement.repositories.UserRepository;
 import com.ims.stockmanagement.services.UserService;
+import com.ims.stockmanagement.services.WriteBehindStockLedger;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -23,11 +31,16 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
+@Validated
 public class UserController {
 
     private final UserRepository userRepository;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final WriteBehindStockLedger writeBehindStockLedger;
+
+    @Value("${api.list.unpaged-limit:1000}")
+    private int unpagedLimit = 1000;
 
     @GetMapping("/profile")
     @PreAuthorize("hasRole('USER')")
@@ -41,7 +54,7 @@ public class UserController {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new NotFoundException("User not found: " + username));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        UserDTO userDTO = userMapper.toDTO(user);
 
         Response response = Response.builder()
                 .statusCode(200)
@@ -69,20 +82,28 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Response> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserDTO> userDTOs = users.stream()
-                .map(user -> modelMapper.map(user, UserDTO.class))
-                .collect(Collectors.toList());
-
-        Response response = Response.builder()
+    public ResponseEntity<Response> getAllUsers(
+            @RequestParam(required = false) @Min(0) Integer page,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer size) {
+        Response.ResponseBuilder response = Response.builder()
                 .statusCode(200)
-                .message("Users retrieved successfully")
-                .userList(userDTOs)
-                .timestamp(LocalDateTime.now())
-                .build();
+                .message("Users retrieved successfully");
+
+        if (page == null && size == null) {
+            // Unpaged, but capped at api.list.unpaged-limit rows
+            List<User> users = userRepository.findAllBy(PageRequest.of(0, unpagedLimit, Sort.by("id")));
+            response.userList(users.stream().map(userMapper::toDTO).collect(Collectors.toList()));
+        } else {
+            Page<User> userPage = userRepository.findAll(
+                    PageRequest.of(page != null ? page : 0, size != null ? size : 20, Sort.by("id")));
+            response.userList(userPage.getContent().stream().map(userMapper::toDTO).collect(Collectors.toList()))
+                    .page(userPage.getNumber())
+                    .size(userPage.getSize())
+                    .totalPages(userPage.getTotalPages())
+                    .totalElements(userPage.getTotalElements());
+        }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(response.timestamp(LocalDateTime.now()).build());
     }
 
     @GetMapping("/{id}")
@@ -91,7 +112,7 @@ public class UserController {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        UserDTO userDTO = userMapper.toDTO(user);
 
         Response response = Response.builder()
                 .statusCode(200)
@@ -117,6 +138,9 @@ public class UserController {
             }
         }
 
+        // Write-behind modunda henüz veritabanına yazılmamış hareketleri olan kullanıcı silinemez
+        writeBehindStockLedger.retireUser(id);
+
         userRepository.deleteById(id);
 
         Response response = Response.builder()
@@ -0,0 +1,24 @@
+package com.ims.stockmanagement.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one line of a batch transaction request.
+ *
+ * index is the zero-based position of the line in the request, statusCode uses the same
+ * values the single-transaction endpoints would have answered with (201, 404, 422), and
+ * transaction is present only for lines that were written to the ledger.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTransactionLineResult {
+    private int index;
+    private int statusCode;
+    private String message;
+    private TransactionDTO transaction;
+}
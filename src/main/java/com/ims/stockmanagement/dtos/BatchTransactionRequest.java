@@ -0,0 +1,32 @@
+package com.ims.stockmanagement.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for POST /api/transactions/batch.
+ *
+ * Every line is an ordinary TransactionRequest and is validated exactly like a single
+ * transaction. By default each line succeeds or fails on its own; with atomic=true the
+ * first rejected line rolls back the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotEmpty(message = "At least one transaction is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch cannot contain more than 1000 transactions")
+    private List<@Valid @NotNull TransactionRequest> transactions;
+
+    private boolean atomic;
+}
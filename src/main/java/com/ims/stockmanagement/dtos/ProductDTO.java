@@ -1,8 +1,9 @@
 package com.ims.stockmanagement.dtos;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -11,7 +12,6 @@ import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class ProductDTO {
 
     private Long id;
@@ -40,6 +40,9 @@ public class ProductDTO {
     @Min(value = 0, message = "Reorder level cannot be negative")
     private Integer reorderLevel;
 
+    /** Read-only: 0, or the number of stock buckets of a sharded hot SKU. */
+    private Integer stockBucketCount;
+
     @NotNull(message = "Category is required")
     private Long categoryId;
 
@@ -58,4 +61,32 @@ public class ProductDTO {
     private String createdByUsername;
 
     private LocalDateTime createdAt;
+
+    /** Read-only: price in the currency of a converted list (?currency=), absent otherwise. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BigDecimal convertedPrice;
+
+    /** Constructor expression of ProductRepository.PRODUCT_DTO_SELECT. */
+    public ProductDTO(Long id, String name, String sku, String description, BigDecimal price,
+                      Integer stockQuantity, Integer reorderLevel, Integer stockBucketCount,
+                      Long categoryId, String categoryName, Long supplierId, String supplierName,
+                      String imageUrl, Long createdByUserId, String createdByUsername, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.sku = sku;
+        this.description = description;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.reorderLevel = reorderLevel;
+        this.stockBucketCount = stockBucketCount;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.imageUrl = imageUrl;
+        this.createdByUserId = createdByUserId;
+        this.createdByUsername = createdByUsername;
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,17 @@
+package com.ims.stockmanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One autocomplete hit of GET /api/products/suggest: just enough to pick the product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDTO {
+    private Long id;
+    private String sku;
+    private String name;
+}
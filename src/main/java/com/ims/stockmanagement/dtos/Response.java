@@ -32,6 +32,12 @@ public class Response {
     private Integer totalPages;
     private Long totalElements;
 
+    // Keyset (cursor) pagination: pass as ?after= to get the next page; absent on the last page.
+    private String nextCursor;
+
+    // Currency of ProductDTO.convertedPrice in a converted product list
+    private String currency;
+
     // Specific response fields for different entities
     private UserDTO user;
     private CategoryDTO category;
@@ -41,8 +47,10 @@ public class Response {
     private List<UserDTO> userList;
     private List<CategoryDTO> categoryList;
     private List<ProductDTO> productList;
+    private List<ProductSuggestionDTO> suggestions;
     private List<SupplierDTO> supplierList;
     private List<TransactionDTO> transactionList;
+    private List<BatchTransactionLineResult> batchResults;
 
     public Response(int statusCode, String message) {
         this.statusCode = statusCode;
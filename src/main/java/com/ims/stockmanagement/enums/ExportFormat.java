@@ -0,0 +1,27 @@
+package com.ims.stockmanagement.enums;
+
+/**
+ * Line formats of the streaming transaction export (GET /api/transactions/export).
+ */
+public enum ExportFormat {
+    /** One JSON object per line (application/x-ndjson). */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** RFC 4180 CSV with a header row (text/csv). */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ims.stockmanagement.enums;
+
+/**
+ * How a SALE serializes against concurrent sales of the same product
+ * (stock.sale.locking-mode).
+ */
+public enum StockLockingMode {
+    /** SELECT ... FOR UPDATE at the start of the sale; the row stays locked for the whole transaction. */
+    PESSIMISTIC,
+    /** One guarded UPDATE as the last statement of the sale; the row is locked only from there to commit. */
+    CONDITIONAL_UPDATE
+}
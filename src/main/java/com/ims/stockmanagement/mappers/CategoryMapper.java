@@ -0,0 +1,32 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.CategoryDTO;
+import com.ims.stockmanagement.models.Category;
+import org.springframework.stereotype.Component;
+
+/**
+ * Category entity <-> CategoryDTO dönüşümü.
+ */
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setDescription(category.getDescription());
+        dto.setCreatedAt(category.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * Yeni kategori için entity oluşturur. Id and createdAt are left to the database
+     * and @PrePersist, so a client cannot overwrite an existing row through create.
+     */
+    public Category toEntity(CategoryDTO dto) {
+        Category category = new Category();
+        category.setName(dto.getName());
+        category.setDescription(dto.getDescription());
+        return category;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.models.Product;
+import org.springframework.stereotype.Component;
+
+/**
+ * Product entity'sini ProductDTO'ya çevirir.
+ * Plain getters and setters instead of ModelMapper: no reflection or matching per row.
+ */
+@Component
+public class ProductMapper {
+
+    public ProductDTO toDTO(Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setSku(product.getSku());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setReorderLevel(product.getReorderLevel());
+        dto.setStockBucketCount(product.getStockBucketCount());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setCreatedAt(product.getCreatedAt());
+
+        // Category bilgileri
+        if (product.getCategory() != null) {
+            dto.setCategoryId(product.getCategory().getId());
+            dto.setCategoryName(product.getCategory().getName());
+        }
+
+        // Supplier bilgileri - Her ürün için kendi tedarikçisi
+        if (product.getSupplier() != null) {
+            dto.setSupplierId(product.getSupplier().getId());
+            dto.setSupplierName(product.getSupplier().getName());
+        }
+
+        // CreatedBy bilgileri
+        if (product.getCreatedBy() != null) {
+            dto.setCreatedByUserId(product.getCreatedBy().getId());
+            dto.setCreatedByUsername(product.getCreatedBy().getUsername());
+        }
+
+        return dto;
+    }
+}
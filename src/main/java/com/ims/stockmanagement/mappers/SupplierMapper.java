@@ -0,0 +1,38 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.SupplierDTO;
+import com.ims.stockmanagement.models.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Supplier entity <-> SupplierDTO dönüşümü.
+ */
+@Component
+public class SupplierMapper {
+
+    public SupplierDTO toDTO(Supplier supplier) {
+        SupplierDTO dto = new SupplierDTO();
+        dto.setId(supplier.getId());
+        dto.setName(supplier.getName());
+        dto.setEmail(supplier.getEmail());
+        dto.setPhone(supplier.getPhone());
+        dto.setAddress(supplier.getAddress());
+        dto.setDescription(supplier.getDescription());
+        dto.setCreatedAt(supplier.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * Yeni tedarikçi için entity oluşturur. Id and createdAt are left to the database
+     * and @PrePersist, so a client cannot overwrite an existing row through create.
+     */
+    public Supplier toEntity(SupplierDTO dto) {
+        Supplier supplier = new Supplier();
+        supplier.setName(dto.getName());
+        supplier.setEmail(dto.getEmail());
+        supplier.setPhone(dto.getPhone());
+        supplier.setAddress(dto.getAddress());
+        supplier.setDescription(dto.getDescription());
+        return supplier;
+    }
+}
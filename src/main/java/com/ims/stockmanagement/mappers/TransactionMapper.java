@@ -0,0 +1,39 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.TransactionDTO;
+import com.ims.stockmanagement.models.StockTransaction;
+import org.springframework.stereotype.Component;
+
+/**
+ * StockTransaction entity'sini TransactionDTO'ya çevirir.
+ */
+@Component
+public class TransactionMapper {
+
+    public TransactionDTO toDTO(StockTransaction transaction) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setId(transaction.getId());
+        dto.setTransactionType(transaction.getTransactionType());
+        dto.setQuantity(transaction.getQuantity());
+        dto.setUnitPrice(transaction.getUnitPrice());
+        dto.setTotalPrice(transaction.getTotalPrice());
+        dto.setStatus(transaction.getStatus());
+        dto.setNotes(transaction.getNotes());
+        dto.setTransactionDate(transaction.getTransactionDate());
+
+        // Null safety for product
+        if (transaction.getProduct() != null) {
+            dto.setProductId(transaction.getProduct().getId());
+            dto.setProductName(transaction.getProduct().getName());
+            dto.setProductSku(transaction.getProduct().getSku());
+        }
+
+        // Null safety for user
+        if (transaction.getUser() != null) {
+            dto.setUserId(transaction.getUser().getId());
+            dto.setUsername(transaction.getUser().getUsername());
+        }
+
+        return dto;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.UserDTO;
+import com.ims.stockmanagement.models.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * User entity'sini UserDTO'ya çevirir. The password hash never leaves the entity.
+ */
+@Component
+public class UserMapper {
+
+    public UserDTO toDTO(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setFullName(user.getFullName());
+        dto.setRole(user.getRole());
+        dto.setEnabled(user.isEnabled());
+        dto.setCreatedAt(user.getCreatedAt());
+        return dto;
+    }
+}
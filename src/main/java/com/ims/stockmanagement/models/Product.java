@@ -1,6 +1,7 @@
 package com.ims.stockmanagement.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ims.stockmanagement.services.ProductSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,14 +13,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        indexes = {
+                @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_products_low_stock_candidate", columnList = "low_stock_candidate")
+        })
+@EntityListeners(ProductSearchIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    /**
+     * Ids come from the shared id_generators table in blocks of 50 (pooled optimizer)
+     * instead of IDENTITY, so Hibernate knows the id before the INSERT runs and can
+     * group inserts into JDBC batches (hibernate.jdbc.batch_size).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_generators", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "products", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -40,6 +53,24 @@ public class Product {
     @Column(nullable = false)
     private Integer reorderLevel = 10; // Minimum stok seviyesi
 
+    /**
+     * 0 for ordinary products. For a hot SKU, N > 0 means its stock is split across N
+     * ProductStockBucket rows that sales decrement independently; stockQuantity is then
+     * a snapshot refreshed by ShardedStockRebalancer, not the authoritative value.
+     */
+    @Column(nullable = false)
+    private Integer stockBucketCount = 0;
+
+    /**
+     * Materialized "may be low on stock" flag, so GET /api/products/low-stock reads an index
+     * instead of comparing two columns on every row. True when stockQuantity <= reorderLevel,
+     * and always for sharded products, whose exact level is only known from their buckets.
+     * Recomputed on every entity write (@PrePersist/@PreUpdate) and by the bulk stock UPDATEs
+     * in ProductRepository; never set it by hand.
+     */
+    @Column(nullable = false)
+    private Boolean lowStockCandidate = false;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     @JsonIgnore
@@ -75,11 +106,17 @@ public class Product {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        lowStockCandidate = isLowStockCandidate();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        lowStockCandidate = isLowStockCandidate();
+    }
+
+    private boolean isLowStockCandidate() {
+        return stockBucketCount > 0 || stockQuantity <= reorderLevel;
     }
 }
 
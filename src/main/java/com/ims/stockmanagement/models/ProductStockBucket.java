@@ -0,0 +1,35 @@
+package com.ims.stockmanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stripe of a sharded product's stock. The product's exact stock is the sum of
+ * its buckets; concurrent sales touching different buckets never wait on each other.
+ */
+@Entity
+@Table(name = "product_stock_buckets",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "bucket_index"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnore
+    private Product product;
+
+    @Column(name = "bucket_index", nullable = false)
+    private Integer bucketIndex;
+
+    @Column(nullable = false)
+    private Integer quantity = 0;
+}
@@ -0,0 +1,62 @@
+package com.ims.stockmanagement.models;
+
+import com.ims.stockmanagement.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A write-behind ledger entry the database kept rejecting (its user or product was
+ * deleted before the flush, for instance). It was acknowledged to the client and is
+ * counted in the in-memory stock, but neither its StockTransaction row nor its stock
+ * change reached the database: both are reconciled by hand from here.
+ *
+ * Product and user ids are plain columns, not foreign keys, since a missing row is
+ * the usual reason for an entry to end up here.
+ */
+@Entity
+@Table(name = "stock_ledger_dead_letters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, updatable = false)
+    private Long journalSequence;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType transactionType;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(length = 1000)
+    private String notes;
+
+    @Column(nullable = false)
+    private LocalDateTime transactionDate;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deadLetteredAt;
+}
@@ -12,14 +12,26 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_transactions")
+@Table(name = "stock_transactions", indexes = {
+        @Index(name = "idx_stock_transactions_date_id", columnList = "transaction_date, id"),
+        @Index(name = "idx_stock_transactions_product_date_id", columnList = "product_id, transaction_date, id"),
+        @Index(name = "idx_stock_transactions_user_date_id", columnList = "user_id, transaction_date, id"),
+        @Index(name = "idx_stock_transactions_type_date_id", columnList = "transaction_type, transaction_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StockTransaction {
 
+    /**
+     * Ids come from the shared id_generators table in blocks of 50 (pooled optimizer)
+     * instead of IDENTITY, so Hibernate knows the id before the INSERT runs and can
+     * group inserts into JDBC batches (hibernate.jdbc.batch_size).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_transaction_id")
+    @TableGenerator(name = "stock_transaction_id", table = "id_generators", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "stock_transactions", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -55,9 +67,20 @@ public class StockTransaction {
     @Column(nullable = false, updatable = false)
     private LocalDateTime transactionDate;
 
+    /**
+     * Position of the row in the write-behind stock journal (WriteBehindStockLedger);
+     * null for rows written directly. Unique, so replaying the journal after a crash
+     * never inserts the same acknowledged transaction twice.
+     */
+    @Column(unique = true, updatable = false)
+    private Long journalSequence;
+
     @PrePersist
     protected void onCreate() {
-        transactionDate = LocalDateTime.now();
+        // Write-behind rows keep the time they were acknowledged, not the time they were flushed
+        if (transactionDate == null) {
+            transactionDate = LocalDateTime.now();
+        }
         if (totalPrice == null && unitPrice != null && quantity != null) {
             totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
         }
@@ -1,10 +1,16 @@
 package com.ims.stockmanagement.models;
 
 import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.security.UserSecurityListener;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +21,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserSecurityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,6 +55,25 @@ public class User implements UserDetails {
 
     private LocalDateTime updatedAt;
 
+    /**
+     * Carried in every access token; a token whose epoch is behind this value is rejected.
+     * Bumped whenever username, password, role or enabled change, which revokes all
+     * tokens issued before.
+     */
+    @Column(nullable = false)
+    private long securityEpoch = 0;
+
+    /** Values the current securityEpoch was issued for, as loaded or last written. */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private SecurityState persistedSecurityState;
+
+    private record SecurityState(String username, String password, UserRole role, boolean enabled) {
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -57,6 +83,20 @@ public class User implements UserDetails {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        if (persistedSecurityState != null && !persistedSecurityState.equals(securityState())) {
+            securityEpoch++;
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberSecurityState() {
+        persistedSecurityState = securityState();
+    }
+
+    private SecurityState securityState() {
+        return new SecurityState(username, password, role, enabled);
     }
 
     // UserDetails implementation
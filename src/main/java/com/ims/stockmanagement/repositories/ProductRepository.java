@@ -1,5 +1,7 @@
 package com.ims.stockmanagement.repositories;
 
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.ProductSuggestionDTO;
 import com.ims.stockmanagement.models.Category;
 import com.ims.stockmanagement.models.Product;
 import jakarta.persistence.LockModeType;
@@ -7,13 +9,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * DTO projection for the list endpoints: only the ProductDTO columns are selected, so
+     * no Product, Category, Supplier or User entity (nor the user's password hash) is
+     * loaded into the persistence context or dirty-checked. The arguments follow the
+     * field order of ProductDTO's all-args constructor.
+     */
+    String PRODUCT_DTO_SELECT = "SELECT new com.ims.stockmanagement.dtos.ProductDTO(" +
+            "p.id, p.name, p.sku, p.description, p.price, p.stockQuantity, p.reorderLevel, p.stockBucketCount, " +
+            "c.id, c.name, s.id, s.name, p.imageUrl, u.id, u.username, p.createdAt) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.supplier s LEFT JOIN p.createdBy u ";
+
     Optional<Product> findBySku(String sku);
 
     // N+1 optimized: Find by ID with all relations
@@ -30,13 +47,93 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     Optional<Product> findByIdForUpdate(@Param("id") Long id);
 
-    // N+1 optimized: Search by name with relations
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Product> findByNameContainingIgnoreCaseWithRelations(@Param("name") String name);
+    /**
+     * Batch counterpart of findByIdForUpdate: locks every requested product row in one
+     * statement. Rows are read in ascending primary-key order, so two batches touching
+     * overlapping products always acquire their locks in the same order and cannot
+     * deadlock against each other. Ids that do not exist are simply absent from the result.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id ASC")
+    List<Product> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
 
-    // N+1 optimized: Search by name or SKU with relations
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Product> findByNameOrSkuContainingWithRelations(@Param("keyword") String keyword);
+    /**
+     * Lock-free sale primitive: decrements stock only if enough is available, in a single
+     * guarded UPDATE. Returns the number of rows changed - 0 means the product is missing
+     * or has less than the requested quantity (or its stock was sharded meanwhile). The
+     * database takes the row lock for this statement only (held until commit), instead
+     * of for the whole sale.
+     *
+     * Bypasses the persistence context: a Product already loaded in the same transaction
+     * keeps its old stockQuantity.
+     *
+     * lowStockCandidate is assigned first and from the old stockQuantity: MySQL evaluates
+     * SET items left to right on the already-updated row, H2 on the old one.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.lowStockCandidate = CASE WHEN p.stockQuantity - :quantity <= p.reorderLevel THEN true ELSE false END, " +
+           "p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stockBucketCount = 0 AND p.stockQuantity >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity,
+                                  @Param("now") LocalDateTime now);
+
+    /**
+     * Relative stock change used by the write-behind ledger's group commit: many
+     * acknowledged transactions of one product collapse into a single UPDATE.
+     * lowStockCandidate comes first for the same reason as in decrementStockIfAvailable.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.lowStockCandidate = CASE WHEN p.stockBucketCount > 0 OR p.stockQuantity + :delta <= p.reorderLevel " +
+           "THEN true ELSE false END, " +
+           "p.stockQuantity = p.stockQuantity + :delta, p.updatedAt = :now WHERE p.id = :id")
+    int adjustStockBy(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    /** name, sku, price, stockQuantity, stockBucketCount - what the write-behind ledger caches per product. */
+    @Query("SELECT p.name, p.sku, p.price, p.stockQuantity, p.stockBucketCount FROM Product p WHERE p.id = :id")
+    List<Object[]> findLedgerSnapshotById(@Param("id") Long id);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    /** Cheap pre-check so a sale of a sharded product never takes the product row lock. */
+    @Query("SELECT p.stockBucketCount FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockBucketCountById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Product p WHERE p.stockBucketCount > 0")
+    List<Long> findIdsWithShardedStock();
+
+    // DTO projection: Search by name
+    // Paged in the database: the search fallback while ProductSearchIndex is not built
+    @Query(value = PRODUCT_DTO_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Page<ProductDTO> findDTOsByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    // DTO projection: Search by name or SKU (paged, as above)
+    @Query(value = PRODUCT_DTO_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+           countQuery = "SELECT COUNT(p) FROM Product p " +
+                   "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    Page<ProductDTO> findDTOsByNameOrSkuContaining(@Param("keyword") String keyword, Pageable pageable);
+
+    // DTO projection: the page of ids ranked by ProductSearchIndex (in no particular order)
+    @Query(PRODUCT_DTO_SELECT + "WHERE p.id IN :ids")
+    List<ProductDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Autocomplete fallback while ProductSearchIndex is still being built
+    @Query("SELECT new com.ims.stockmanagement.dtos.ProductSuggestionDTO(p.id, p.sku, p.name) FROM Product p " +
+           "WHERE LOWER(p.sku) LIKE CONCAT(LOWER(:prefix), '%') OR LOWER(p.name) LIKE CONCAT(LOWER(:prefix), '%') " +
+           "ORDER BY p.sku ASC")
+    List<ProductSuggestionDTO> findSuggestionsByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    /** id, name, sku of the products after afterId, in id order - ProductSearchIndex rebuilds. */
+    @Query("SELECT p.id, p.name, p.sku FROM Product p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // DTO projection: one page of a category's products
+    @Query(value = PRODUCT_DTO_SELECT + "WHERE c.id = :categoryId",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
+    Page<ProductDTO> findDTOsByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
     // N+1 optimized: Find by category with relations
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy WHERE p.category = :category")
@@ -49,8 +146,17 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByCategory(Category category);
 
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy WHERE p.stockQuantity <= p.reorderLevel")
-    List<Product> findLowStockProducts();
+    /**
+     * Reads only the rows flagged by idx_products_low_stock_candidate. Ordinary candidates are
+     * low by definition; sharded ones are compared on the exact sum of their buckets,
+     * not the stockQuantity snapshot.
+     */
+    String LOW_STOCK_WHERE = "WHERE p.lowStockCandidate = true AND (p.stockBucketCount = 0 " +
+            "OR (SELECT COALESCE(SUM(b.quantity), 0) FROM ProductStockBucket b WHERE b.product = p) <= p.reorderLevel)";
+
+    @Query(value = PRODUCT_DTO_SELECT + LOW_STOCK_WHERE,
+           countQuery = "SELECT COUNT(p) FROM Product p " + LOW_STOCK_WHERE)
+    Page<ProductDTO> findLowStockProductDTOs(Pageable pageable);
 
     boolean existsBySku(String sku);
 
@@ -67,9 +173,22 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy")
     List<Product> findAllWithSupplierAndCategory();
 
-    // Pageable sorgularda da FETCH JOIN kullan
-    @Query(value = "SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy",
+    /**
+     * Keyset pagination, newest first, on (createdAt, id) - see
+     * StockTransactionRepository.findTransactionDTOsAfter. The Pageable only carries the page size.
+     */
+    @Query(PRODUCT_DTO_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductDTO> findFirstProductDTOs(Pageable pageable);
+
+    @Query(PRODUCT_DTO_SELECT +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductDTO> findProductDTOsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+
+    // Sayfalı liste: entity yerine doğrudan DTO (sort properties resolve against the p alias)
+    @Query(value = PRODUCT_DTO_SELECT,
            countQuery = "SELECT COUNT(p) FROM Product p")
-    Page<Product> findAllWithRelations(Pageable pageable);
+    Page<ProductDTO> findAllProductDTOs(Pageable pageable);
 }
 
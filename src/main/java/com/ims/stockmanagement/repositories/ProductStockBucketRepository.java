@@ -0,0 +1,61 @@
+package com.ims.stockmanagement.repositories;
+
+import com.ims.stockmanagement.models.ProductStockBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bucket writes are single-row bulk UPDATEs and reads are scalar queries, so no
+ * ProductStockBucket entity state is ever cached in the persistence context of a
+ * stock transaction and every read sees the current row values.
+ */
+public interface ProductStockBucketRepository extends JpaRepository<ProductStockBucket, Long> {
+
+    @Modifying
+    @Query("UPDATE ProductStockBucket b SET b.quantity = b.quantity - :quantity " +
+           "WHERE b.product.id = :productId AND b.bucketIndex = :bucketIndex AND b.quantity >= :quantity")
+    int decrementIfAvailable(@Param("productId") Long productId, @Param("bucketIndex") int bucketIndex,
+                             @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockBucket b SET b.quantity = b.quantity + :quantity " +
+           "WHERE b.product.id = :productId AND b.bucketIndex = :bucketIndex")
+    int increment(@Param("productId") Long productId, @Param("bucketIndex") int bucketIndex,
+                  @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockBucket b SET b.quantity = :quantity " +
+           "WHERE b.product.id = :productId AND b.bucketIndex = :bucketIndex")
+    int setQuantity(@Param("productId") Long productId, @Param("bucketIndex") int bucketIndex,
+                    @Param("quantity") int quantity);
+
+    /**
+     * Locks every bucket of the product in bucket order and returns [bucket_index, quantity]
+     * rows. Native so the values come straight from the locked rows.
+     */
+    @Query(value = "SELECT bucket_index, quantity FROM product_stock_buckets " +
+                   "WHERE product_id = :productId ORDER BY bucket_index FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockBucketQuantities(@Param("productId") Long productId);
+
+    /** Unlocked [bucketIndex, quantity] rows; a hint for picking a bucket, not a guarantee. */
+    @Query("SELECT b.bucketIndex, b.quantity FROM ProductStockBucket b " +
+           "WHERE b.product.id = :productId ORDER BY b.bucketIndex")
+    List<Object[]> findBucketQuantities(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(b.quantity), 0) FROM ProductStockBucket b WHERE b.product.id = :productId")
+    long sumQuantityByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT b.product.id, SUM(b.quantity) FROM ProductStockBucket b " +
+           "WHERE b.product.id IN :productIds GROUP BY b.product.id")
+    List<Object[]> sumQuantityByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockBucket b WHERE b.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,22 @@
+package com.ims.stockmanagement.repositories;
+
+import com.ims.stockmanagement.models.StockLedgerDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockLedgerDeadLetterRepository extends JpaRepository<StockLedgerDeadLetter, Long> {
+
+    /** Which of the given write-behind journal positions were already dead-lettered. */
+    @Query("SELECT d.journalSequence FROM StockLedgerDeadLetter d WHERE d.journalSequence IN :sequences")
+    List<Long> findExistingJournalSequences(@Param("sequences") Collection<Long> sequences);
+
+    @Query("SELECT MAX(d.journalSequence) FROM StockLedgerDeadLetter d")
+    Optional<Long> findMaxJournalSequence();
+
+    List<StockLedgerDeadLetter> findByProductId(Long productId);
+}
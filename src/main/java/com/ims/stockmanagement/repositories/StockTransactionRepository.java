@@ -1,32 +1,113 @@
 package com.ims.stockmanagement.repositories;
 
+import com.ims.stockmanagement.dtos.TransactionDTO;
 import com.ims.stockmanagement.models.Product;
 import com.ims.stockmanagement.models.StockTransaction;
 import com.ims.stockmanagement.models.User;
 import com.ims.stockmanagement.enums.TransactionType;
 import com.ims.stockmanagement.enums.TransactionStatus;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StockTransactionRepository extends JpaRepository<StockTransaction, Long> {
 
+    /**
+     * DTO projection for the ledger list: only the TransactionDTO columns are selected, so
+     * neither the Product nor the User entity (with its password hash) is loaded into the
+     * persistence context. The arguments follow the field order of TransactionDTO's
+     * all-args constructor.
+     */
+    String TRANSACTION_DTO_SELECT = "SELECT new com.ims.stockmanagement.dtos.TransactionDTO(" +
+            "t.id, p.id, p.name, p.sku, u.id, u.username, t.transactionType, t.quantity, t.unitPrice, " +
+            "t.totalPrice, t.status, t.notes, t.transactionDate) " +
+            "FROM StockTransaction t LEFT JOIN t.product p LEFT JOIN t.user u ";
+
     // N+1 optimization: Fetch product and user in single query
     @Query("SELECT DISTINCT t FROM StockTransaction t LEFT JOIN FETCH t.product LEFT JOIN FETCH t.user")
     List<StockTransaction> findAllWithProductAndUser();
 
-    // Pageable with fetch join
-    @Query(value = "SELECT DISTINCT t FROM StockTransaction t LEFT JOIN FETCH t.product LEFT JOIN FETCH t.user",
+    // Pageable DTO projection (sort properties resolve against the t alias)
+    @Query(value = TRANSACTION_DTO_SELECT,
            countQuery = "SELECT COUNT(t) FROM StockTransaction t")
-    Page<StockTransaction> findAllWithProductAndUser(Pageable pageable);
+    Page<TransactionDTO> findAllTransactionDTOs(Pageable pageable);
+
+    /**
+     * "Strictly after (transactionDate, id)" in descending order. The leading
+     * transactionDate <= bound is redundant but sargable: it gives H2 and MySQL an index
+     * range to start from, where the OR alone would be a filter on every row.
+     */
+    String AFTER_CURSOR = "t.transactionDate <= :transactionDate " +
+            "AND (t.transactionDate < :transactionDate OR t.id < :id) ";
+
+    /**
+     * Keyset pagination, newest first: the first page, then every row strictly after the
+     * (transactionDate, id) of the previous page's last row. Served by
+     * idx_stock_transactions_date_id without an OFFSET scan or a COUNT, and rows inserted
+     * meanwhile never shift later pages. The Pageable only carries the page size.
+     */
+    @Query(TRANSACTION_DTO_SELECT + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findFirstTransactionDTOs(Pageable pageable);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE " + AFTER_CURSOR + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findTransactionDTOsAfter(@Param("transactionDate") LocalDateTime transactionDate,
+                                                  @Param("id") Long id, Pageable pageable);
+
+    /**
+     * The same keyset pages, filtered by product, user or type. t.product.id / t.user.id are
+     * the foreign key columns themselves, so each page is one range of
+     * idx_stock_transactions_product_date_id, _user_date_id or _type_date_id.
+     */
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.product.id = :productId ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findFirstTransactionDTOsByProduct(@Param("productId") Long productId, Pageable pageable);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.product.id = :productId AND " + AFTER_CURSOR +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findTransactionDTOsByProductAfter(@Param("productId") Long productId,
+                                                           @Param("transactionDate") LocalDateTime transactionDate,
+                                                           @Param("id") Long id, Pageable pageable);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findFirstTransactionDTOsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId AND " + AFTER_CURSOR +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findTransactionDTOsByUserAfter(@Param("userId") Long userId,
+                                                        @Param("transactionDate") LocalDateTime transactionDate,
+                                                        @Param("id") Long id, Pageable pageable);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.transactionType = :type ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findFirstTransactionDTOsByType(@Param("type") TransactionType type, Pageable pageable);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.transactionType = :type AND " + AFTER_CURSOR +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findTransactionDTOsByTypeAfter(@Param("type") TransactionType type,
+                                                        @Param("transactionDate") LocalDateTime transactionDate,
+                                                        @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Forward-only read of the ledger for the streaming export, oldest first. Rows come
+     * from the JDBC cursor in fetch-size chunks (MySQL: useCursorFetch=true) and are DTOs,
+     * so memory stays flat however wide the range is. Must be consumed, and closed,
+     * inside a read-only transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(TRANSACTION_DTO_SELECT +
+           "WHERE t.transactionDate >= :from AND t.transactionDate < :to ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<TransactionDTO> streamTransactionDTOs(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     // Find by ID with relations
     @Query("SELECT t FROM StockTransaction t LEFT JOIN FETCH t.product LEFT JOIN FETCH t.user WHERE t.id = :id")
@@ -85,5 +166,11 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<StockTransaction> findFirstByProduct_IdOrderByIdAsc(Long productId);
-}
 
+    /** Which of the given write-behind journal positions are already in the ledger. */
+    @Query("SELECT t.journalSequence FROM StockTransaction t WHERE t.journalSequence IN :sequences")
+    List<Long> findExistingJournalSequences(@Param("sequences") Collection<Long> sequences);
+
+    @Query("SELECT MAX(t.journalSequence) FROM StockTransaction t")
+    Optional<Long> findMaxJournalSequence();
+}
@@ -1,14 +1,35 @@
 package com.ims.stockmanagement.repositories;
 
+import com.ims.stockmanagement.config.ReferenceDataCacheConfig;
 import com.ims.stockmanagement.models.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
+
+    // Served from the query cache until suppliers is written (ReferenceDataCacheConfig)
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCacheConfig.QUERY_REGION)
+    })
+    List<Supplier> findAll();
+
+    // Unpaged list endpoint: the first rows of the given sort, no count; also query-cached
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCacheConfig.QUERY_REGION)
+    })
+    List<Supplier> findAllBy(Pageable pageable);
+
     Optional<Supplier> findByEmail(String email);
 
     boolean existsByEmail(String email);
@@ -2,8 +2,13 @@ package com.ims.stockmanagement.repositories;
 
 import com.ims.stockmanagement.enums.UserRole;
 import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.security.AccountSecurityState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -23,6 +28,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
     long countByRole(UserRole role);
+
+    // Unpaged GET /api/users: the first rows of the given sort, no count
+    List<User> findAllBy(Pageable pageable);
+
+    // Security epochs for SecurityEpochRegistry, without loading the entities
+    @Query("SELECT new com.ims.stockmanagement.security.AccountSecurityState(u.id, u.securityEpoch, u.enabled) FROM User u")
+    List<AccountSecurityState> findAllSecurityStates();
+
+    @Query("SELECT new com.ims.stockmanagement.security.AccountSecurityState(u.id, u.securityEpoch, u.enabled) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<AccountSecurityState> findSecurityStateById(@Param("id") Long id);
 }
 
 
@@ -0,0 +1,11 @@
+package com.ims.stockmanagement.security;
+
+/**
+ * The parts of a users row an access token is checked against.
+ *
+ * @param userId        Id of the account
+ * @param securityEpoch Tokens issued for an older epoch are revoked
+ * @param enabled       Whether the account may authenticate at all
+ */
+public record AccountSecurityState(Long userId, long securityEpoch, boolean enabled) {
+}
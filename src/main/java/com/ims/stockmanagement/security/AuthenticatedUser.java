@@ -0,0 +1,24 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.User;
+
+/**
+ * What a request needs to know about the account behind a verified token: identity,
+ * role and whether it may still log in. Built from the token claims, not the User row.
+ */
+public record AuthenticatedUser(Long id, String username, UserRole role, boolean enabled) {
+
+    /**
+     * A fresh, detached User carrying only these fields, for the SecurityContext. A new
+     * instance per request, so nothing a request does to its principal leaks into the cache.
+     */
+    public User toPrincipal() {
+        User principal = new User();
+        principal.setId(id);
+        principal.setUsername(username);
+        principal.setRole(role);
+        principal.setEnabled(enabled);
+        return principal;
+    }
+}
@@ -1,7 +1,6 @@
 package com.ims.stockmanagement.security;
 
 import com.ims.stockmanagement.models.User;
-import com.ims.stockmanagement.repositories.UserRepository;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -20,7 +19,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -28,8 +26,9 @@ import java.util.Optional;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final SecurityEpochRegistry securityEpochRegistry;
     private final SecurityErrorResponseWriter responseWriter;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(
@@ -47,34 +46,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtService.extractUsername(jwt);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Optional<User> loadedUser = userRepository.findByUsername(username);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                JwtService.TokenClaims claims = verifiedClaims(jwt);
+                AccountSecurityState account = securityEpochRegistry.current(claims.userId());
 
-                if (loadedUser.isPresent()) {
-                    User userDetails = loadedUser.get();
-
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
-                        // Account state is re-checked on every request. A token stays
-                        // cryptographically valid until it expires, so without this a user
-                        // disabled after login would keep full access with the old token.
-                        if (!userDetails.isEnabled()) {
-                            SecurityContextHolder.clearContext();
-                            log.warn("Rejected access token presented for a disabled account");
-                            sendErrorResponse(response, HttpStatus.UNAUTHORIZED,
-                                    SecurityErrorMessages.AUTHENTICATION_INVALID);
-                            return;
-                        }
-
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (account != null) {
+                    // Account state is re-checked on every request, against the in-memory
+                    // registry. A token stays cryptographically valid until it expires, so
+                    // without this a user disabled after login would keep full access with
+                    // the old token; a role or credential change revokes it the same way.
+                    if (!account.enabled() || account.securityEpoch() != claims.securityEpoch()) {
+                        SecurityContextHolder.clearContext();
+                        log.warn("Rejected access token of a disabled or changed account");
+                        sendErrorResponse(response, HttpStatus.UNAUTHORIZED,
+                                SecurityErrorMessages.AUTHENTICATION_INVALID);
+                        return;
                     }
+
+                    User principal = new AuthenticatedUser(claims.userId(), claims.username(),
+                            claims.role(), true).toPrincipal();
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            principal,
+                            null,
+                            principal.getAuthorities()
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
 
@@ -98,6 +96,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Claims of the token, verified once and then answered from VerifiedTokenCache.
+     */
+    private JwtService.TokenClaims verifiedClaims(String jwt) {
+        JwtService.TokenClaims claims = verifiedTokenCache.get(jwt);
+        if (claims == null) {
+            claims = jwtService.parseAndValidate(jwt);
+            verifiedTokenCache.put(jwt, claims);
+        }
+        return claims;
+    }
+
     private void sendErrorResponse(HttpServletResponse response, HttpStatus status, String message) throws IOException {
         responseWriter.write(response, status, message);
     }
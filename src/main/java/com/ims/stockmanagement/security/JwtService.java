@@ -1,6 +1,10 @@
 package com.ims.stockmanagement.security;
 
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,32 +12,84 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_SECURITY_EPOCH = "epoch";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Built once: the HMAC key and the parser are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Claims of a verified access token.
+     *
+     * @param username      Subject of the token
+     * @param userId        Id of the account
+     * @param role          Role of the account when the token was issued
+     * @param securityEpoch User.securityEpoch when the token was issued
+     * @param expiresAt     Expiration of the token
+     */
+    public record TokenClaims(String username, Long userId, UserRole role, long securityEpoch, Instant expiresAt) {
     }
 
-    public String generateToken(UserDetails userDetails) {
+    /**
+     * Access token carrying everything a request needs to authenticate without reading
+     * the user: id, role and the account's current security epoch.
+     */
+    public String generateToken(User user) {
         return Jwts.builder()
-                .subject(userDetails.getUsername())
+                .subject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_SECURITY_EPOCH, user.getSecurityEpoch())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token once (signature, expiry) and returns everything the caller needs
+     * from it. Throws the JwtException subtype describing the failure; a token missing
+     * any of the claims generateToken writes is rejected as well.
+     */
+    public TokenClaims parseAndValidate(String token) {
+        Claims claims = extractAllClaims(token);
+        String username = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number securityEpoch = claims.get(CLAIM_SECURITY_EPOCH, Number.class);
+        if (username == null || username.isBlank() || expiration == null
+                || userId == null || role == null || securityEpoch == null) {
+            throw new JwtException("Token is missing required claims");
+        }
+        try {
+            return new TokenClaims(username, userId.longValue(), UserRole.valueOf(role),
+                    securityEpoch.longValue(), expiration.toInstant());
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Token has an unknown role", e);
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -44,24 +100,12 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        TokenClaims claims = parseAndValidate(token);
+        return claims.username().equals(userDetails.getUsername())
+                && claims.expiresAt().isAfter(Instant.now());
     }
 }
-
@@ -0,0 +1,81 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every account's security epoch and enabled flag, so that
+ * JwtAuthenticationFilter can check a token against the account without a query.
+ *
+ * Changes made through this instance are applied immediately (UserSecurityListener);
+ * everything else - other instances, direct database edits - is picked up by the full
+ * reload every jwt.security-epoch.refresh-ms. An account missing from the map (created
+ * since the last reload) is read once from the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityEpochRegistry {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, AccountSecurityState> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * Current state of the account, or null when it does not exist (any more).
+     */
+    public AccountSecurityState current(Long userId) {
+        AccountSecurityState state = accounts.get(userId);
+        if (state != null) {
+            return state;
+        }
+        return userRepository.findSecurityStateById(userId)
+                .map(this::apply)
+                .orElse(null);
+    }
+
+    public void update(User user) {
+        if (user.getId() != null) {
+            apply(new AccountSecurityState(user.getId(), user.getSecurityEpoch(), user.isEnabled()));
+        }
+    }
+
+    public void remove(Long userId) {
+        accounts.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.security-epoch.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            List<AccountSecurityState> states = userRepository.findAllSecurityStates();
+            Set<Long> ids = new HashSet<>();
+            for (AccountSecurityState state : states) {
+                ids.add(state.userId());
+                apply(state);
+            }
+            accounts.keySet().retainAll(ids);
+        } catch (RuntimeException e) {
+            // Keep serving the last known states; the next run retries
+            log.warn("Security epoch reload failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Never lets an older epoch replace a newer one, e.g. a reload that read the row just
+     * before a local change was written.
+     */
+    private AccountSecurityState apply(AccountSecurityState state) {
+        return accounts.merge(state.userId(), state,
+                (known, fresh) -> fresh.securityEpoch() >= known.securityEpoch() ? fresh : known);
+    }
+}
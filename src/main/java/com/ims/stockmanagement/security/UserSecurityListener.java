@@ -0,0 +1,54 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.models.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on User: any insert, update (role, enabled, profile) or delete of an
+ * account, through whichever code path, is written to SecurityEpochRegistry as soon as
+ * it is flushed, so the next request is checked against it. If the transaction then
+ * rolls back, the account is dropped from the registry and read again on its next use.
+ */
+@Component
+public class UserSecurityListener {
+
+    private final SecurityEpochRegistry securityEpochRegistry;
+
+    // Lazy: the registry needs UserRepository, whose EntityManagerFactory creates this listener
+    public UserSecurityListener(@Lazy SecurityEpochRegistry securityEpochRegistry) {
+        this.securityEpochRegistry = securityEpochRegistry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void accountSaved(User user) {
+        securityEpochRegistry.update(user);
+        forgetOnRollback(user.getId());
+    }
+
+    @PostRemove
+    public void accountRemoved(User user) {
+        securityEpochRegistry.remove(user.getId());
+        forgetOnRollback(user.getId());
+    }
+
+    private void forgetOnRollback(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    securityEpochRegistry.remove(userId);
+                }
+            }
+        });
+    }
+}
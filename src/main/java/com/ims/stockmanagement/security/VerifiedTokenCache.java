@@ -0,0 +1,88 @@
+package com.ims.stockmanagement.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens that JwtAuthenticationFilter has already verified, keyed by the SHA-256
+ * of the token (raw tokens are never kept), with their claims. A hit replaces signature
+ * verification and parsing.
+ *
+ * Only the token itself is cached: whether its account is still enabled and its epoch
+ * still current is checked on every request (SecurityEpochRegistry). An entry lives for
+ * jwt.cache.ttl-ms, never past the token's own expiry; at most jwt.cache.max-entries
+ * tokens are held.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${jwt.cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(JwtService.TokenClaims claims, long validUntilMillis) {
+    }
+
+    /**
+     * Claims of this already verified token, or null when it was not cached or has lapsed.
+     */
+    public JwtService.TokenClaims get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.validUntilMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    public void put(String token, JwtService.TokenClaims claims) {
+        long validUntil = Math.min(System.currentTimeMillis() + ttlMs, claims.expiresAt().toEpochMilli());
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(hash(token), new Entry(claims, validUntil));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes lapsed entries and, if the cache is still full, arbitrary ones down to 90 %.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now >= entry.validUntilMillis());
+        int target = maxEntries * 9 / 10;
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
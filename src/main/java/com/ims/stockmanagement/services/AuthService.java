@@ -8,6 +8,7 @@ import com.ims.stockmanagement.enums.UserRole;
 import com.ims.stockmanagement.exceptions.AccountLockedException;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
 import com.ims.stockmanagement.exceptions.InvalidCredentialsException;
+import com.ims.stockmanagement.mappers.UserMapper;
 import com.ims.stockmanagement.models.RefreshToken;
 import com.ims.stockmanagement.models.User;
 import com.ims.stockmanagement.repositories.UserRepository;
@@ -15,7 +16,6 @@ import com.ims.stockmanagement.security.JwtService;
 import com.ims.stockmanagement.security.LoginAttemptService;
 import com.ims.stockmanagement.security.PasswordValidator;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -40,7 +40,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final LoginAttemptService loginAttemptService;
     private final RefreshTokenService refreshTokenService;
     private final PasswordValidator passwordValidator;
@@ -79,7 +79,7 @@ public class AuthService {
         // JWT token oluştur
         String token = jwtService.generateToken(savedUser);
 
-        UserDTO userDTO = modelMapper.map(savedUser, UserDTO.class);
+        UserDTO userDTO = userMapper.toDTO(savedUser);
 
         return Response.builder()
                 .statusCode(201)
@@ -126,7 +126,7 @@ public class AuthService {
             // 6. Generate Refresh Token
             RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getUsername());
 
-            UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+            UserDTO userDTO = userMapper.toDTO(user);
 
             return Response.builder()
                     .statusCode(200)
@@ -170,7 +170,7 @@ public class AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new InvalidCredentialsException("User not found"));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        UserDTO userDTO = userMapper.toDTO(user);
 
         return Response.builder()
                 .statusCode(200)
@@ -189,7 +189,7 @@ public class AuthService {
                 .map(RefreshToken::getUser)
                 .map(user -> {
                     String newAccessToken = jwtService.generateToken(user);
-                    UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+                    UserDTO userDTO = userMapper.toDTO(user);
                     
                     return Response.builder()
                             .statusCode(200)
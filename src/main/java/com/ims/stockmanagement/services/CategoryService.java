@@ -4,10 +4,14 @@ import com.ims.stockmanagement.dtos.CategoryDTO;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
 import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.mappers.CategoryMapper;
 import com.ims.stockmanagement.models.Category;
 import com.ims.stockmanagement.repositories.CategoryRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,21 +24,46 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
+
+    @Value("${api.list.unpaged-limit:1000}")
+    private int unpagedLimit = 1000;
 
     /**
      * Tüm kategorileri listele (READ - CRUD)
+     * Unpaged for dropdowns, but capped at api.list.unpaged-limit rows
      */
     public Response getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
+        List<Category> categories = categoryRepository.findAllBy(PageRequest.of(0, unpagedLimit, Sort.by("id")));
         List<CategoryDTO> categoryDTOs = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(categoryMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return Response.builder()
+                .statusCode(200)
+                .message("Categories retrieved successfully")
+                .categoryList(categoryDTOs)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Tüm kategorileri sayfalı listele
+     */
+    public Response getAllCategories(int page, int size) {
+        Page<Category> categoryPage = categoryRepository.findAll(PageRequest.of(page, size, Sort.by("id")));
+        List<CategoryDTO> categoryDTOs = categoryPage.getContent().stream()
+                .map(categoryMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
                 .statusCode(200)
                 .message("Categories retrieved successfully")
                 .categoryList(categoryDTOs)
+                .page(categoryPage.getNumber())
+                .size(categoryPage.getSize())
+                .totalPages(categoryPage.getTotalPages())
+                .totalElements(categoryPage.getTotalElements())
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -46,7 +75,7 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category not found with id: " + id));
 
-        CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
+        CategoryDTO categoryDTO = categoryMapper.toDTO(category);
 
         return Response.builder()
                 .statusCode(200)
@@ -67,9 +96,9 @@ public class CategoryService {
             throw new AlreadyExistsException("Category already exists with name: " + categoryDTO.getName());
         }
 
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = categoryMapper.toEntity(categoryDTO);
         Category savedCategory = categoryRepository.save(category);
-        CategoryDTO savedCategoryDTO = modelMapper.map(savedCategory, CategoryDTO.class);
+        CategoryDTO savedCategoryDTO = categoryMapper.toDTO(savedCategory);
 
         return Response.builder()
                 .statusCode(201)
@@ -98,7 +127,7 @@ public class CategoryService {
         existingCategory.setDescription(categoryDTO.getDescription());
 
         Category updatedCategory = categoryRepository.save(existingCategory);
-        CategoryDTO updatedCategoryDTO = modelMapper.map(updatedCategory, CategoryDTO.class);
+        CategoryDTO updatedCategoryDTO = categoryMapper.toDTO(updatedCategory);
 
         return Response.builder()
                 .statusCode(200)
@@ -139,7 +168,7 @@ public class CategoryService {
     public Response searchCategoriesByName(String name) {
         List<Category> categories = categoryRepository.findByNameContainingIgnoreCase(name);
         List<CategoryDTO> categoryDTOs = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(categoryMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
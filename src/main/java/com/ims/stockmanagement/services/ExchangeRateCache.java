@@ -0,0 +1,199 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.ExchangeRateDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process exchange-rate snapshot shared by ExternalApiService and ExchangeRateService.
+ *
+ * Only the reference base (exchange.rates.reference-base) is fetched; every other base
+ * is served as cross rates from that one document. A snapshot is fresh for
+ * exchange.rates.refresh-interval-ms and is kept warm by a scheduled refresh once it has
+ * been used. After that it is still served while a background refresh runs
+ * (stale-while-revalidate), and also while the upstream is slow or down, but never once
+ * it is older than exchange.rates.max-stale-ms: then the caller waits for a fresh fetch
+ * and gets an IllegalStateException if that fails.
+ *
+ * Upstream calls are single-flight per base currency: while one is in flight, every other
+ * caller for that base (cold-cache burst, background or scheduled refresh) joins the same
+ * CompletableFuture instead of issuing its own request. Callers wait at most
+ * exchange.rates.fetch-timeout-ms; a call that outlives them still updates the snapshot.
+ * Issued and coalesced calls are counted in exchange.rates.upstream.calls (tag outcome).
+ */
+@Slf4j
+@Component
+public class ExchangeRateCache {
+
+    static final String CALLS_METRIC = "exchange.rates.upstream.calls";
+    static final String TIMEOUTS_METRIC = "exchange.rates.upstream.timeouts";
+
+    private final RestTemplate restTemplate;
+    private final Counter issuedCalls;
+    private final Counter coalescedCalls;
+    private final Counter timedOutWaits;
+
+    @Value("${exchange.api.url:https://api.exchangerate-api.com/v4/latest/}")
+    private String apiUrl = "https://api.exchangerate-api.com/v4/latest/";
+
+    @Value("${exchange.rates.reference-base:USD}")
+    private String referenceBase = "USD";
+
+    @Value("${exchange.rates.refresh-interval-ms:600000}")
+    private long refreshIntervalMs = 600000;
+
+    @Value("${exchange.rates.max-stale-ms:86400000}")
+    private long maxStaleMs = 86400000;
+
+    @Value("${exchange.rates.fetch-timeout-ms:5000}")
+    private long fetchTimeoutMs = 5000;
+
+    private final AtomicReference<ExchangeRateSnapshot> snapshot = new AtomicReference<>();
+    private final ConcurrentHashMap<String, CompletableFuture<ExchangeRateSnapshot>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService fetcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-rate-fetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExchangeRateCache(RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.issuedCalls = Counter.builder(CALLS_METRIC).tag("outcome", "issued")
+                .description("Exchange-rate API requests sent").register(meterRegistry);
+        this.coalescedCalls = Counter.builder(CALLS_METRIC).tag("outcome", "coalesced")
+                .description("Exchange-rate fetches served by a request already in flight").register(meterRegistry);
+        this.timedOutWaits = Counter.builder(TIMEOUTS_METRIC)
+                .description("Callers that stopped waiting for an exchange-rate fetch").register(meterRegistry);
+    }
+
+    /**
+     * The current snapshot: fetched on first use, served stale within max-stale.
+     *
+     * @throws IllegalStateException if no snapshot within max-stale can be obtained
+     */
+    ExchangeRateSnapshot current() {
+        ExchangeRateSnapshot cached = snapshot.get();
+        Instant now = Instant.now();
+        if (cached != null && cached.age(now).toMillis() < refreshIntervalMs) {
+            return cached;
+        }
+        if (cached != null && cached.age(now).toMillis() < maxStaleMs) {
+            fetchShared(referenceBase);
+            return cached;
+        }
+        return await(fetchShared(referenceBase));
+    }
+
+    /**
+     * Keeps a snapshot that is in use fresh, so requests rarely see a stale one. Does
+     * nothing until the first request has loaded rates.
+     */
+    @Scheduled(fixedDelayString = "${exchange.rates.refresh-interval-ms:600000}",
+               initialDelayString = "${exchange.rates.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (snapshot.get() == null) {
+            return;
+        }
+        try {
+            await(fetchShared(referenceBase));
+        } catch (IllegalStateException e) {
+            log.warn("Scheduled exchange rate refresh failed, keeping the snapshot from {}",
+                    snapshot.get().fetchedAt());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        fetcher.shutdownNow();
+    }
+
+    /**
+     * The upstream call for a base currency: the one already in flight, or a new one.
+     */
+    CompletableFuture<ExchangeRateSnapshot> fetchShared(String base) {
+        CompletableFuture<ExchangeRateSnapshot> call = new CompletableFuture<>();
+        CompletableFuture<ExchangeRateSnapshot> existing = inFlight.putIfAbsent(base, call);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return existing;
+        }
+
+        issuedCalls.increment();
+        try {
+            fetcher.execute(() -> {
+                try {
+                    call.complete(fetch(base));
+                } catch (RuntimeException e) {
+                    call.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(base, call);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(base, call);
+            call.completeExceptionally(e);
+        }
+        return call;
+    }
+
+    private ExchangeRateSnapshot await(CompletableFuture<ExchangeRateSnapshot> call) {
+        try {
+            return call.get(fetchTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOutWaits.increment();
+            throw new IllegalStateException("Exchange rate service did not respond in time. Please try again later.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalStateException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException("Exchange rate service is unavailable. Please try again later.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for exchange rates", e);
+        }
+    }
+
+    private ExchangeRateSnapshot fetch(String base) {
+        ExchangeRateDTO document;
+        try {
+            log.info("Fetching exchange rates for: {}", base);
+            document = restTemplate.getForObject(apiUrl + base, ExchangeRateDTO.class);
+        } catch (RuntimeException e) {
+            log.error("Error fetching exchange rates for {}: {}", base, e.getMessage());
+            throw new IllegalStateException("Exchange rate service is unavailable. Please try again later.", e);
+        }
+        if (document == null || document.getRates() == null || document.getRates().isEmpty()) {
+            throw new IllegalStateException("Invalid response from exchange rate API");
+        }
+
+        String quotedBase = document.getBase() != null ? document.getBase() : base;
+        document.getRates().putIfAbsent(quotedBase, BigDecimal.ONE);
+        RateTable rates;
+        try {
+            rates = new RateTable(document.getRates());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid response from exchange rate API: " + e.getMessage(), e);
+        }
+        ExchangeRateSnapshot fetched = new ExchangeRateSnapshot(quotedBase, document.getDate(), rates, Instant.now());
+        snapshot.set(fetched);
+        log.info("Exchange rate snapshot updated: {} currencies against {}", fetched.currencies().size(), quotedBase);
+        return fetched;
+    }
+}
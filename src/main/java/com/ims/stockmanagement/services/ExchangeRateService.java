@@ -4,7 +4,6 @@ import com.ims.stockmanagement.dtos.ExchangeRateDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -14,27 +13,16 @@ import java.math.RoundingMode;
 @RequiredArgsConstructor
 public class ExchangeRateService {
 
-    private static final String API_URL = "https://api.exchangerate-api.com/v4/latest/TRY";
-    private final RestTemplate restTemplate;
+    private static final String BASE_CURRENCY = "TRY";
+    private final ExchangeRateCache exchangeRateCache;
 
     /**
-     * Dış API'den güncel döviz kurlarını çeker
+     * Güncel döviz kurlarını döner (paylaşılan kur önbelleğinden, TRY bazlı çapraz kurlar)
      * @return ExchangeRateDTO - Tüm döviz kurları
      */
     public ExchangeRateDTO getExchangeRates() {
-        try {
-            ExchangeRateDTO rates = restTemplate.getForObject(API_URL, ExchangeRateDTO.class);
-            if (rates == null || rates.getRates() == null) {
-                throw new IllegalStateException("Invalid response from exchange rate API");
-            }
-            return rates;
-        } catch (org.springframework.web.client.ResourceAccessException e) {
-            log.error("Exchange rate API connection failed: {}", e.getMessage());
-            throw new IllegalStateException("Exchange rate service is unavailable. Please try again later.");
-        } catch (Exception e) {
-            log.error("Failed to fetch exchange rates: {}", e.getMessage());
-            throw new IllegalStateException("Failed to fetch exchange rates: " + e.getMessage());
-        }
+        ExchangeRateSnapshot snapshot = exchangeRateCache.current();
+        return new ExchangeRateDTO(BASE_CURRENCY, snapshot.date(), snapshot.ratesFor(BASE_CURRENCY));
     }
 
     /**
@@ -78,12 +66,7 @@ public class ExchangeRateService {
             throw new IllegalArgumentException("Target currency cannot be null or empty");
         }
 
-        ExchangeRateDTO rates = getExchangeRates();
-        BigDecimal rate = rates.getRates().get(targetCurrency.toUpperCase().trim());
-
-        if (rate == null) {
-            throw new IllegalArgumentException("Unsupported currency: " + targetCurrency);
-        }
+        BigDecimal rate = exchangeRateCache.current().rate(BASE_CURRENCY, targetCurrency.toUpperCase().trim());
 
         return amountInTRY.multiply(rate).setScale(2, RoundingMode.HALF_UP);
     }
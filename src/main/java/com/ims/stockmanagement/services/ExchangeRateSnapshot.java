@@ -0,0 +1,73 @@
+package com.ims.stockmanagement.services;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One exchange-rate document as fetched from the upstream API, quoted against a single
+ * reference currency and held as a RateTable. Rates for any other base are cross rates
+ * derived from it, so one fetch serves every base currency.
+ */
+final class ExchangeRateSnapshot {
+
+    private final String base;
+    private final String date;
+    private final RateTable rates;
+    private final Instant fetchedAt;
+
+    ExchangeRateSnapshot(String base, String date, RateTable rates, Instant fetchedAt) {
+        this.base = base;
+        this.date = date;
+        this.rates = rates;
+        this.fetchedAt = fetchedAt;
+    }
+
+    String base() {
+        return base;
+    }
+
+    String date() {
+        return date;
+    }
+
+    Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    Duration age(Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+
+    List<String> currencies() {
+        return rates.codes();
+    }
+
+    /**
+     * All rates for one unit of the given base currency.
+     *
+     * @throws IllegalArgumentException if the base currency is not in the snapshot
+     */
+    Map<String, BigDecimal> ratesFor(String baseCurrency) {
+        return rates.ratesFor(indexOf(baseCurrency));
+    }
+
+    /**
+     * Rate for converting one unit of from into to.
+     *
+     * @throws IllegalArgumentException if either currency is not in the snapshot
+     */
+    BigDecimal rate(String from, String to) {
+        return rates.rate(indexOf(from), indexOf(to));
+    }
+
+    private int indexOf(String currency) {
+        int index = rates.indexOf(currency);
+        if (index == RateTable.UNSUPPORTED) {
+            throw new IllegalArgumentException("Currency not supported: " + currency);
+        }
+        return index;
+    }
+}
@@ -1,65 +1,44 @@
 package com.ims.stockmanagement.services;
 
+import com.ims.stockmanagement.dtos.ProductDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * External API integration service
- * Performs currency exchange rate conversion using Currency Exchange API
+ * Performs currency exchange rate conversion using Currency Exchange API.
+ * Rates come from the shared ExchangeRateCache snapshot, not from an HTTP call per request.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExternalApiService {
 
-    private final RestTemplate restTemplate;
-
-    private static final String EXCHANGE_API_URL = "https://api.exchangerate-api.com/v4/latest/";
+    private final ExchangeRateCache exchangeRateCache;
 
     /**
-     * Fetches current exchange rates for the specified base currency
+     * Returns current exchange rates for the specified base currency
      *
      * @param baseCurrency Base currency code (e.g., "TRY", "USD", "EUR")
-     * @return Exchange rates map
+     * @return Exchange rates map (base, date, rates)
      * @throws IllegalArgumentException if currency code is invalid
      */
     public Map<String, Object> getExchangeRates(String baseCurrency) {
-        if (baseCurrency == null || baseCurrency.trim().isEmpty()) {
-            throw new IllegalArgumentException("Currency code cannot be null or empty");
-        }
-
-        String sanitizedCurrency = baseCurrency.toUpperCase().trim();
-        if (!sanitizedCurrency.matches("^[A-Z]{3}$")) {
-            throw new IllegalArgumentException("Invalid currency code format: " + baseCurrency);
-        }
-
-        try {
-            String url = EXCHANGE_API_URL + sanitizedCurrency;
-            log.info("Fetching exchange rates for: {}", sanitizedCurrency);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response == null || response.isEmpty()) {
-                log.warn("Empty response from exchange API for currency: {}", sanitizedCurrency);
-                throw new RuntimeException("Failed to fetch exchange rates: empty response");
-            }
-
-            log.info("Successfully fetched exchange rates for: {}", sanitizedCurrency);
-            return response;
-        } catch (RuntimeException e) {
-            log.error("Error fetching exchange rates for {}: {}", baseCurrency, e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("Error fetching exchange rates for {}: {}", baseCurrency, e.getMessage());
-            throw new RuntimeException("External API error: " + e.getMessage(), e);
-        }
+        String sanitizedCurrency = sanitize(baseCurrency);
+        ExchangeRateSnapshot snapshot = exchangeRateCache.current();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("base", sanitizedCurrency);
+        response.put("date", snapshot.date());
+        response.put("rates", snapshot.ratesFor(sanitizedCurrency));
+        return response;
     }
 
     /**
@@ -87,48 +66,31 @@ public class ExternalApiService {
             return price.setScale(2, RoundingMode.HALF_UP);
         }
 
-        try {
-            Map<String, Object> exchangeData = getExchangeRates(fromCurrency);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> rates = (Map<String, Object>) exchangeData.get("rates");
-
-            if (rates == null) {
-                log.error("No rates found in exchange API response");
-                throw new RuntimeException("Exchange rates not available");
-            }
-
-            String targetCurrency = toCurrency.toUpperCase().trim();
-            if (!rates.containsKey(targetCurrency)) {
-                log.error("Exchange rate not found for currency: {}", targetCurrency);
-                throw new IllegalArgumentException("Currency not supported: " + targetCurrency);
-            }
+        BigDecimal rate = exchangeRateCache.current().rate(sanitize(fromCurrency), sanitize(toCurrency));
+        BigDecimal convertedPrice = price.multiply(rate).setScale(2, RoundingMode.HALF_UP);
 
-            Object rateObj = rates.get(targetCurrency);
-            Double rate;
-            if (rateObj instanceof Number) {
-                rate = ((Number) rateObj).doubleValue();
-            } else {
-                throw new RuntimeException("Invalid rate format for currency: " + targetCurrency);
-            }
+        log.debug("Converted {} {} to {} {} (rate: {})", price, fromCurrency, convertedPrice, toCurrency, rate);
+        return convertedPrice;
+    }
 
-            if (rate == null || rate <= 0) {
-                throw new RuntimeException("Invalid exchange rate for currency: " + targetCurrency);
+    /**
+     * Sets convertedPrice on every product of a list: one rate lookup for the whole list,
+     * then one multiply per product. Products without a price are left unconverted.
+     *
+     * @param products     Products priced in fromCurrency
+     * @param fromCurrency Source currency code (e.g., "TRY")
+     * @param toCurrency   Target currency code (e.g., "EUR")
+     * @return The same list, for chaining
+     * @throws IllegalArgumentException if a currency code is invalid or not supported
+     */
+    public List<ProductDTO> convertPrices(List<ProductDTO> products, String fromCurrency, String toCurrency) {
+        BigDecimal rate = exchangeRateCache.current().rate(sanitize(fromCurrency), sanitize(toCurrency));
+        for (ProductDTO product : products) {
+            if (product.getPrice() != null) {
+                product.setConvertedPrice(product.getPrice().multiply(rate).setScale(2, RoundingMode.HALF_UP));
             }
-
-            BigDecimal convertedPrice = price.multiply(BigDecimal.valueOf(rate));
-
-            log.info("Converted {} {} to {} {} (rate: {})",
-                    price, fromCurrency, convertedPrice.setScale(2, RoundingMode.HALF_UP), toCurrency, rate);
-
-            return convertedPrice.setScale(2, RoundingMode.HALF_UP);
-
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Error converting price from {} to {}: {}", fromCurrency, toCurrency, e.getMessage());
-            throw new RuntimeException("Price conversion failed: " + e.getMessage(), e);
         }
+        return products;
     }
 
     /**
@@ -137,26 +99,23 @@ public class ExternalApiService {
      * @return Currency list information
      */
     public Map<String, Object> getSupportedCurrencies() {
-        try {
-            // Fetch USD-based rates (most widely supported)
-            Map<String, Object> data = getExchangeRates("USD");
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> rates = (Map<String, Object>) data.get("rates");
-
-            if (rates == null || rates.isEmpty()) {
-                throw new RuntimeException("No currencies found in exchange API response");
-            }
+        ExchangeRateSnapshot snapshot = exchangeRateCache.current();
+        log.info("Total supported currencies: {}", snapshot.currencies().size());
+        return Map.of(
+                "base", snapshot.base(),
+                "currencies", snapshot.currencies(),
+                "count", snapshot.currencies().size()
+        );
+    }
 
-            log.info("Total supported currencies: {}", rates.size());
-            return Map.of(
-                    "base", "USD",
-                    "currencies", rates.keySet(),
-                    "count", rates.size()
-            );
-        } catch (Exception e) {
-            log.error("Error fetching supported currencies: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch currencies: " + e.getMessage(), e);
+    private String sanitize(String currency) {
+        if (currency == null || currency.trim().isEmpty()) {
+            throw new IllegalArgumentException("Currency code cannot be null or empty");
+        }
+        String sanitizedCurrency = currency.toUpperCase().trim();
+        if (!sanitizedCurrency.matches("^[A-Z]{3}$")) {
+            throw new IllegalArgumentException("Invalid currency code format: " + currency);
         }
+        return sanitizedCurrency;
     }
 }
@@ -0,0 +1,436 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.ProductSuggestionDTO;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index over product name and SKU, so product search never runs
+ * LIKE '%keyword%' (a full scan of products) per keystroke.
+ *
+ * Every three-character window of the lower-cased name and SKU points to the ids that
+ * contain it. A keyword's candidates are the ids found under all of its trigrams, and
+ * each candidate is checked with a plain substring test, so results are exactly the
+ * rows the LIKE query returns. Keywords shorter than three characters are matched
+ * against every indexed product in memory.
+ *
+ * Results are ranked: exact SKU, SKU prefix, name prefix, word in the name, anywhere;
+ * then by name and id.
+ *
+ * suggest() answers prefix lookups (autocomplete) from two sorted maps, lower-cased SKU
+ * and lower-cased name: one range scan per map, never more entries than the limit.
+ *
+ * Built by rebuild() shortly after start-up and every product-search.index.rebuild-ms
+ * (picks up other instances and direct database edits). Changes made through this
+ * instance are applied on commit by ProductSearchIndexListener. Until the first build
+ * has finished, isReady() is false and callers fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    static final int MIN_TRIGRAM_KEYWORD = 3;
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private static final int RANK_EXACT_SKU = 0;
+    private static final int RANK_SKU_PREFIX = 1;
+    private static final int RANK_NAME_PREFIX = 2;
+    private static final int RANK_NAME_WORD = 3;
+    private static final int RANK_ANYWHERE = 4;
+    private static final int NO_MATCH = -1;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::rank)
+            .thenComparing(Hit::name)
+            .thenComparingLong(Hit::id);
+
+    private final ProductRepository productRepository;
+
+    @Value("${product-search.index.rebuild-batch-size:10000}")
+    private int rebuildBatchSize = REBUILD_BATCH_SIZE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Index index = new Index();
+    private boolean ready;
+    // Changes applied while a rebuild is reading the table; replayed onto the new index
+    private List<Change> changesDuringRebuild;
+
+    /**
+     * One page of matching ids, best first, and the number of matches overall.
+     */
+    public record SearchPage(List<Long> ids, long totalMatches) {
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Products whose name or SKU contains the keyword (case-insensitive). */
+    public SearchPage searchNameOrSku(String keyword, int offset, int limit) {
+        return search(keyword, true, offset, limit);
+    }
+
+    /** Products whose name contains the keyword (case-insensitive). */
+    public SearchPage searchName(String keyword, int offset, int limit) {
+        return search(keyword, false, offset, limit);
+    }
+
+    /**
+     * Products whose SKU, then whose name, starts with the prefix (case-insensitive), in
+     * SKU and name order, at most limit of them.
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        Set<Long> ids = new LinkedHashSet<>();
+        List<ProductSuggestionDTO> suggestions = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            index.collectPrefixed(index.skuKeys, normalized, ids, limit);
+            index.collectPrefixed(index.nameKeys, normalized, ids, limit);
+            for (Long id : ids) {
+                Document document = index.documents.get(id);
+                suggestions.add(new ProductSuggestionDTO(id, document.displaySku(), document.displayName()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    public void put(Long id, String name, String sku) {
+        Document document = Document.of(name, sku);
+        // Stock writes also fire this; skip the write lock when nothing searchable changed
+        lock.readLock().lock();
+        try {
+            if (document.equals(index.documents.get(id))) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        apply(new Change(id, document));
+    }
+
+    public void remove(Long id) {
+        apply(new Change(id, null));
+    }
+
+    /**
+     * Reads id, name and SKU of every product in id order, builds a new index off-lock and
+     * swaps it in. Changes applied meanwhile are replayed onto it before the swap.
+     */
+    @Scheduled(fixedDelayString = "${product-search.index.rebuild-ms:600000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = null;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            // Keep serving the current index (or the database fallback); the next run retries
+            log.warn("Product search index rebuild failed: {}", e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) {
+                    for (Change change : changesDuringRebuild) {
+                        rebuilt.apply(change);
+                    }
+                    index = rebuilt;
+                    ready = true;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (rebuilt != null) {
+            log.debug("Product search index rebuilt: {} products", rebuilt.documents.size());
+        }
+    }
+
+    private Index load() {
+        Index loaded = new Index();
+        long afterId = Long.MIN_VALUE;
+        List<Object[]> batch;
+        do {
+            batch = productRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+            for (Object[] row : batch) {
+                afterId = (Long) row[0];
+                loaded.apply(new Change(afterId, Document.of((String) row[1], (String) row[2])));
+            }
+        } while (batch.size() == rebuildBatchSize);
+        return loaded;
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            index.apply(change);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private SearchPage search(String keyword, boolean includeSku, int offset, int limit) {
+        String normalized = normalize(keyword);
+        // Bounded heap of the best (offset + limit) hits, worst on top
+        long wanted = Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Hit> best = new PriorityQueue<>(BEST_FIRST.reversed());
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            for (long id : index.candidates(normalized)) {
+                Document document = index.documents.get(id);
+                int rank = rank(document, normalized, includeSku);
+                if (rank == NO_MATCH) {
+                    continue;
+                }
+                total++;
+                Hit hit = new Hit(id, rank, document.name());
+                if (best.size() < wanted) {
+                    best.add(hit);
+                } else if (BEST_FIRST.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Hit[] ranked = best.toArray(new Hit[0]);
+        Arrays.sort(ranked, BEST_FIRST);
+        List<Long> ids = new ArrayList<>();
+        for (int i = offset; i < ranked.length; i++) {
+            ids.add(ranked[i].id());
+        }
+        return new SearchPage(ids, total);
+    }
+
+    private static int rank(Document document, String keyword, boolean includeSku) {
+        if (includeSku && document.sku().equals(keyword)) {
+            return RANK_EXACT_SKU;
+        }
+        if (includeSku && document.sku().startsWith(keyword)) {
+            return RANK_SKU_PREFIX;
+        }
+        int position = document.name().indexOf(keyword);
+        if (position == 0) {
+            return RANK_NAME_PREFIX;
+        }
+        while (position > 0) {
+            if (!Character.isLetterOrDigit(document.name().charAt(position - 1))) {
+                return RANK_NAME_WORD;
+            }
+            position = document.name().indexOf(keyword, position + 1);
+        }
+        if (document.name().contains(keyword) || (includeSku && document.sku().contains(keyword))) {
+            return RANK_ANYWHERE;
+        }
+        return NO_MATCH;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /** Three chars packed into one long: no String per trigram. */
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private static Set<Long> trigrams(String value) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + MIN_TRIGRAM_KEYWORD <= value.length(); i++) {
+            trigrams.add(trigram(value, i));
+        }
+        return trigrams;
+    }
+
+    /** name and sku lower-cased for matching, display* as stored. */
+    private record Document(String name, String sku, String displayName, String displaySku) {
+
+        static Document of(String name, String sku) {
+            return new Document(normalize(name), normalize(sku), name, sku);
+        }
+
+        Set<Long> trigrams() {
+            Set<Long> trigrams = ProductSearchIndex.trigrams(name);
+            trigrams.addAll(ProductSearchIndex.trigrams(sku));
+            return trigrams;
+        }
+    }
+
+    /** document == null: the product was deleted. */
+    private record Change(Long id, Document document) {
+    }
+
+    private record Hit(long id, int rank, String name) {
+    }
+
+    private static final class Index {
+
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        // "<lower-cased value>\0<id>": sorted by value, unique per product
+        private final NavigableMap<String, Long> skuKeys = new TreeMap<>();
+        private final NavigableMap<String, Long> nameKeys = new TreeMap<>();
+
+        void apply(Change change) {
+            Document previous = change.document() == null
+                    ? documents.remove(change.id())
+                    : documents.put(change.id(), change.document());
+            if (previous != null) {
+                skuKeys.remove(sortKey(previous.sku(), change.id()));
+                nameKeys.remove(sortKey(previous.name(), change.id()));
+                for (long trigram : previous.trigrams()) {
+                    Postings ids = postings.get(trigram);
+                    if (ids != null && ids.remove(change.id()) && ids.size == 0) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+            if (change.document() != null) {
+                skuKeys.put(sortKey(change.document().sku(), change.id()), change.id());
+                nameKeys.put(sortKey(change.document().name(), change.id()), change.id());
+                for (long trigram : change.document().trigrams()) {
+                    postings.computeIfAbsent(trigram, key -> new Postings()).add(change.id());
+                }
+            }
+        }
+
+        void collectPrefixed(NavigableMap<String, Long> keys, String prefix, Set<Long> ids, int limit) {
+            for (Long id : keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                if (ids.size() >= limit) {
+                    return;
+                }
+                ids.add(id);
+            }
+        }
+
+        private static String sortKey(String value, Long id) {
+            return value + '\0' + id;
+        }
+
+        /**
+         * Ids that may contain the keyword: every indexed id for short keywords, otherwise
+         * the ids present in the postings of all of its trigrams, walked from the shortest list.
+         */
+        Iterable<Long> candidates(String keyword) {
+            if (keyword.length() < MIN_TRIGRAM_KEYWORD) {
+                return documents.keySet();
+            }
+            List<Postings> lists = new ArrayList<>();
+            for (long trigram : trigrams(keyword)) {
+                Postings ids = postings.get(trigram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(ids -> ids.size));
+
+            Postings shortest = lists.get(0);
+            List<Long> candidates = new ArrayList<>();
+            for (int i = 0; i < shortest.size; i++) {
+                long id = shortest.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(id);
+                }
+                if (inAll) {
+                    candidates.add(id);
+                }
+            }
+            return candidates;
+        }
+    }
+
+    /**
+     * Sorted, growable array of product ids. Ids are mostly handed out in increasing
+     * order, so adding is usually an append.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
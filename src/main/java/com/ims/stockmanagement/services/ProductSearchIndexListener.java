@@ -0,0 +1,54 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.models.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on Product: every insert, update and delete, through whichever code path
+ * (ProductService, data initializers, tests), reaches ProductSearchIndex once its
+ * transaction commits. Rolled-back changes are never indexed.
+ */
+@Component
+public class ProductSearchIndexListener {
+
+    private final ProductSearchIndex productSearchIndex;
+
+    // Lazy: the index needs ProductRepository, whose EntityManagerFactory creates this listener
+    public ProductSearchIndexListener(@Lazy ProductSearchIndex productSearchIndex) {
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void productSaved(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+        String sku = product.getSku();
+        afterCommit(() -> productSearchIndex.put(id, name, sku));
+    }
+
+    @PostRemove
+    public void productRemoved(Product product) {
+        Long id = product.getId();
+        afterCommit(() -> productSearchIndex.remove(id));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
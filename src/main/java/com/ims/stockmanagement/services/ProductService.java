@@ -1,11 +1,13 @@
 package com.ims.stockmanagement.services;
 
 import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.ProductSuggestionDTO;
 import com.ims.stockmanagement.dtos.ProductUpdateRequest;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
 import com.ims.stockmanagement.exceptions.NotFoundException;
 import com.ims.stockmanagement.exceptions.ProductHasTransactionHistoryException;
+import com.ims.stockmanagement.mappers.ProductMapper;
 import com.ims.stockmanagement.models.Category;
 import com.ims.stockmanagement.models.Product;
 import com.ims.stockmanagement.models.Supplier;
@@ -16,8 +18,9 @@ import com.ims.stockmanagement.repositories.StockTransactionRepository;
 import com.ims.stockmanagement.repositories.SupplierRepository;
 import com.ims.stockmanagement.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +31,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,12 +43,24 @@ public class ProductService {
     static final String PRODUCT_HAS_TRANSACTION_HISTORY_MESSAGE =
             "Product cannot be deleted because it has stock transaction history.";
 
+    /** Search fallback order: LIMIT/OFFSET need a stable one, the index's ranking is not available. */
+    private static final Sort LIKE_SEARCH_SORT = Sort.by("name", "id");
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final SupplierRepository supplierRepository;
     private final UserRepository userRepository;
     private final StockTransactionRepository stockTransactionRepository;
-    private final ModelMapper modelMapper;
+    private final ShardedStockService shardedStockService;
+    private final WriteBehindStockLedger writeBehindStockLedger;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductMapper productMapper;
+
+    @Value("${product-search.suggest.default-limit:10}")
+    private int suggestDefaultLimit = 10;
+
+    @Value("${product-search.suggest.max-limit:50}")
+    private int suggestMaxLimit = 50;
 
     /**
      * Tüm ürünleri listele (READ - CRUD)
@@ -53,7 +70,7 @@ public class ProductService {
     public Response getAllProducts() {
         List<Product> products = productRepository.findAllByOrderByCreatedAtDesc();
         List<ProductDTO> productDTOs = products.stream()
-                .map(this::convertToDTO)
+                .map(productMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
@@ -66,7 +83,7 @@ public class ProductService {
 
     /**
      * Tüm ürünleri sayfalı listele
-     * Supplier ve Category bilgileri FETCH JOIN ile yüklenir
+     * Rows are read straight into ProductDTO (no entities in the persistence context)
      * createdAt'e göre azalan sırada (en yeni önce)
      */
     public Response getAllProducts(Pageable pageable) {
@@ -74,17 +91,15 @@ public class ProductService {
         if (pageable.getSort().isSorted() &&
             pageable.getSort().stream().anyMatch(order -> order.getProperty().equals("createdAt"))) {
             // createdAt'e göre azalan sırada sırala
-            pageable = org.springframework.data.domain.PageRequest.of(
+            pageable = PageRequest.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
                 Sort.by(Sort.Direction.DESC, "createdAt")
             );
         }
 
-        Page<Product> productPage = productRepository.findAllWithRelations(pageable);
-        List<ProductDTO> productDTOs = productPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Page<ProductDTO> productPage = productRepository.findAllProductDTOs(pageable);
+        List<ProductDTO> productDTOs = productPage.getContent();
 
         // Pagination is reported as explicit top-level fields. The Page itself is not
         // returned: serializing it exposed raw Product entities and depended on
@@ -102,23 +117,50 @@ public class ProductService {
     }
 
     /**
-     * Ürün arama metodu
-     * N+1 optimized: Uses FETCH JOIN to load all relations in single query
+     * Ürünleri imleçle (keyset) listele, en yeni önce
+     * No total count: every page is one index range scan, however deep it is.
      */
-    public Response searchProducts(String keyword) {
-        List<Product> products = productRepository.findByNameOrSkuContainingWithRelations(keyword);
-        List<ProductDTO> productDTOs = products.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Response getProductsAfter(String after, int limit) {
+        // One extra row tells whether there is a next page
+        Pageable pageSize = PageRequest.of(0, limit + 1);
+        List<ProductDTO> productDTOs;
+        if (after == null) {
+            productDTOs = productRepository.findFirstProductDTOs(pageSize);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            productDTOs = productRepository.findProductDTOsAfter(cursor.timestamp(), cursor.id(), pageSize);
+        }
+
+        String nextCursor = null;
+        if (productDTOs.size() > limit) {
+            productDTOs = productDTOs.subList(0, limit);
+            ProductDTO last = productDTOs.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
         return Response.builder()
                 .statusCode(200)
-                .message("Products found: " + productDTOs.size())
+                .message("Products retrieved successfully")
                 .productList(productDTOs)
+                .size(limit)
+                .nextCursor(nextCursor)
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
+    /**
+     * Ürün arama metodu (isim veya SKU), sayfalı ve sıralı
+     * Matches and ranking come from ProductSearchIndex; only the requested page is read
+     * from the database. Falls back to the paged LIKE query until the index has been built.
+     */
+    public Response searchProducts(String keyword, int page, int size) {
+        if (!productSearchIndex.isReady()) {
+            return likeSearchPage(productRepository.findDTOsByNameOrSkuContaining(
+                    keyword, PageRequest.of(page, size, LIKE_SEARCH_SORT)), page, size);
+        }
+        return searchPage(productSearchIndex.searchNameOrSku(keyword, offset(page, size), size), page, size);
+    }
+
     /**
      * ID'ye göre ürün getir (READ - CRUD)
      * N+1 optimized: Uses FETCH JOIN to load all relations in single query
@@ -127,7 +169,11 @@ public class ProductService {
         Product product = productRepository.findByIdWithRelations(id)
                 .orElseThrow(() -> new NotFoundException("Product not found with id: " + id));
 
-        ProductDTO productDTO = convertToDTO(product);
+        ProductDTO productDTO = productMapper.toDTO(product);
+        if (product.getStockBucketCount() > 0) {
+            // Exact read for a sharded product: the sum of its buckets, not the snapshot.
+            productDTO.setStockQuantity(shardedStockService.totalStock(id));
+        }
 
         return Response.builder()
                 .statusCode(200)
@@ -182,7 +228,7 @@ public class ProductService {
         product.setCreatedBy(currentUser); // Ürünü oluşturan kullanıcı
 
         Product savedProduct = productRepository.save(product);
-        ProductDTO savedProductDTO = convertToDTO(savedProduct);
+        ProductDTO savedProductDTO = productMapper.toDTO(savedProduct);
 
         return Response.builder()
                 .statusCode(201)
@@ -234,7 +280,7 @@ public class ProductService {
         existingProduct.setImageUrl(updateRequest.getImageUrl());
 
         Product updatedProduct = productRepository.save(existingProduct);
-        ProductDTO updatedProductDTO = convertToDTO(updatedProduct);
+        ProductDTO updatedProductDTO = productMapper.toDTO(updatedProduct);
 
         return Response.builder()
                 .statusCode(200)
@@ -290,6 +336,13 @@ public class ProductService {
             throw new ProductHasTransactionHistoryException(PRODUCT_HAS_TRANSACTION_HISTORY_MESSAGE);
         }
 
+        // Write-behind modunda henüz veritabanına yazılmamış hareketler de geçmiş sayılır
+        writeBehindStockLedger.retireProduct(id);
+
+        if (product.getStockBucketCount() > 0) {
+            shardedStockService.dropBuckets(id);
+        }
+
         productRepository.delete(product);
 
         return Response.builder()
@@ -300,89 +353,160 @@ public class ProductService {
     }
 
     /**
-     * İsme göre ürün ara
-     * N+1 optimized: Uses FETCH JOIN to load all relations in single query
+     * SKU / isim öneri (autocomplete): products whose SKU or name starts with the prefix,
+     * id, sku and name only. limit defaults to product-search.suggest.default-limit and is
+     * capped at product-search.suggest.max-limit.
      */
-    public Response searchProductsByName(String name) {
-        List<Product> products = productRepository.findByNameContainingIgnoreCaseWithRelations(name);
-        List<ProductDTO> productDTOs = products.stream()
-                .map(this::convertToDTO)
+    public Response suggestProducts(String prefix, Integer limit) {
+        int effectiveLimit = Math.min(limit != null ? limit : suggestDefaultLimit, suggestMaxLimit);
+        List<ProductSuggestionDTO> suggestions = productSearchIndex.isReady()
+                ? productSearchIndex.suggest(prefix, effectiveLimit)
+                : productRepository.findSuggestionsByPrefix(prefix, PageRequest.of(0, effectiveLimit));
+
+        return Response.builder()
+                .statusCode(200)
+                .message("Suggestions found: " + suggestions.size())
+                .suggestions(suggestions)
+                .size(effectiveLimit)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * İsme göre ürün ara, sayfalı ve sıralı (see searchProducts)
+     */
+    public Response searchProductsByName(String name, int page, int size) {
+        if (!productSearchIndex.isReady()) {
+            return likeSearchPage(productRepository.findDTOsByNameContainingIgnoreCase(
+                    name, PageRequest.of(page, size, LIKE_SEARCH_SORT)), page, size);
+        }
+        return searchPage(productSearchIndex.searchName(name, offset(page, size), size), page, size);
+    }
+
+    private Response searchPage(ProductSearchIndex.SearchPage result, int page, int size) {
+        if (result.ids().isEmpty()) {
+            return searchResponse(List.of(), result.totalMatches(), page, size);
+        }
+        Map<Long, ProductDTO> byId = productRepository.findDTOsByIdIn(result.ids()).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, dto -> dto));
+        // Index order; a product deleted since the search is skipped
+        List<ProductDTO> productDTOs = result.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return searchResponse(productDTOs, result.totalMatches(), page, size);
+    }
 
+    /** Fallback: LIMIT and COUNT run in the database, only the page is materialised. */
+    private Response likeSearchPage(Page<ProductDTO> matches, int page, int size) {
+        return searchResponse(matches.getContent(), matches.getTotalElements(), page, size);
+    }
+
+    private Response searchResponse(List<ProductDTO> productDTOs, long totalMatches, int page, int size) {
         return Response.builder()
                 .statusCode(200)
-                .message("Products found: " + productDTOs.size())
+                .message("Products found: " + totalMatches)
                 .productList(productDTOs)
+                .page(page)
+                .size(size)
+                .totalPages((int) ((totalMatches + size - 1) / size))
+                .totalElements(totalMatches)
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
+    private static int offset(int page, int size) {
+        return (int) Math.min((long) page * size, Integer.MAX_VALUE);
+    }
+
     /**
-     * Kategoriye göre ürünleri getir
-     * N+1 optimized: Uses FETCH JOIN to load all relations in single query
+     * Kategoriye göre ürünleri sayfalı getir, en yeni önce
+     * Rows are read straight into ProductDTO; the page size is bounded by the controller
      */
-    public Response getProductsByCategory(Long categoryId) {
-        Category category = categoryRepository.findById(categoryId)
+    public Response getProductsByCategory(Long categoryId, int page, int size) {
+        // findById rather than existsById: categories are served from the second-level cache
+        categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new NotFoundException("Category not found with id: " + categoryId));
 
-        List<Product> products = productRepository.findByCategoryWithRelations(category);
-        List<ProductDTO> productDTOs = products.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Page<ProductDTO> productPage = productRepository.findDTOsByCategoryId(categoryId,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
 
         return Response.builder()
                 .statusCode(200)
-                .message("Products found: " + productDTOs.size())
-                .productList(productDTOs)
+                .message("Products found: " + productPage.getTotalElements())
+                .productList(productPage.getContent())
+                .page(productPage.getNumber())
+                .size(productPage.getSize())
+                .totalPages(productPage.getTotalPages())
+                .totalElements(productPage.getTotalElements())
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
     /**
-     * Düşük stoklu ürünleri getir
+     * Düşük stoklu ürünleri sayfalı getir, en az stoklu önce
      */
-    public Response getLowStockProducts() {
-        List<Product> products = productRepository.findLowStockProducts();
-        List<ProductDTO> productDTOs = products.stream()
-                .map(this::convertToDTO)
+    public Response getLowStockProducts(int page, int size) {
+        Page<ProductDTO> productPage = productRepository.findLowStockProductDTOs(
+                PageRequest.of(page, size, Sort.by("stockQuantity", "id")));
+        List<ProductDTO> productDTOs = productPage.getContent();
+
+        // Sharded products: report the same exact bucket sum the query filtered on.
+        List<Long> shardedIds = productDTOs.stream()
+                .filter(dto -> dto.getStockBucketCount() > 0)
+                .map(ProductDTO::getId)
                 .collect(Collectors.toList());
+        if (!shardedIds.isEmpty()) {
+            Map<Long, Integer> totals = shardedStockService.totalStock(shardedIds);
+            productDTOs.forEach(dto -> {
+                if (totals.containsKey(dto.getId())) {
+                    dto.setStockQuantity(totals.get(dto.getId()));
+                }
+            });
+        }
 
         return Response.builder()
                 .statusCode(200)
-                .message("Low stock products found: " + productDTOs.size())
+                .message("Low stock products found: " + productPage.getTotalElements())
                 .productList(productDTOs)
+                .page(productPage.getNumber())
+                .size(productPage.getSize())
+                .totalPages(productPage.getTotalPages())
+                .totalElements(productPage.getTotalElements())
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
     /**
-     * Product entity'sini ProductDTO'ya çevirir
+     * Ürünün stoğunu kovalara böl (sıcak SKU)
+     * The current stock is split evenly over the buckets; later sales decrement them in parallel.
      */
-    private ProductDTO convertToDTO(Product product) {
-        ProductDTO dto = modelMapper.map(product, ProductDTO.class);
-
-        // Category bilgileri
-        if (product.getCategory() != null) {
-            dto.setCategoryId(product.getCategory().getId());
-            dto.setCategoryName(product.getCategory().getName());
-        }
-
-        // Supplier bilgileri - Her ürün için kendi tedarikçisi
-        if (product.getSupplier() != null) {
-            dto.setSupplierId(product.getSupplier().getId());
-            dto.setSupplierName(product.getSupplier().getName());
-        }
+    @Transactional
+    public Response enableStockSharding(Long id, int bucketCount) {
+        writeBehindStockLedger.requireDisabled("Stock sharding");
+        Product product = shardedStockService.enableSharding(id, bucketCount);
 
-        // CreatedBy bilgileri
-        if (product.getCreatedBy() != null) {
-            dto.setCreatedByUserId(product.getCreatedBy().getId());
-            dto.setCreatedByUsername(product.getCreatedBy().getUsername());
-        }
+        return Response.builder()
+                .statusCode(200)
+                .message("Product stock split into " + bucketCount + " buckets")
+                .product(productMapper.toDTO(product))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
 
-        // Stok miktarı
-        dto.setStockQuantity(product.getStockQuantity());
+    /**
+     * Kovaları tek stok değerinde birleştir
+     */
+    @Transactional
+    public Response disableStockSharding(Long id) {
+        writeBehindStockLedger.requireDisabled("Stock sharding");
+        Product product = shardedStockService.disableSharding(id);
 
-        return dto;
+        return Response.builder()
+                .statusCode(200)
+                .message("Product stock buckets merged")
+                .product(productMapper.toDTO(product))
+                .timestamp(LocalDateTime.now())
+                .build();
     }
 }
-
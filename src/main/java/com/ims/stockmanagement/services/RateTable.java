@@ -0,0 +1,128 @@
+package com.ims.stockmanagement.services;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable exchange-rate table. Each ISO 4217 code is interned to a small int index
+ * (the three letters packed into 15 bits address a lookup array, so finding an index
+ * neither hashes nor allocates) and rates are held in arrays by index.
+ *
+ * rates[i] is the price of one unit of the reference currency in currency i. The cross
+ * rates of a base currency (rates[to] / rates[base]) are computed once, on first use of
+ * that base, so a conversion is an array lookup plus one multiply.
+ */
+final class RateTable {
+
+    static final int UNSUPPORTED = -1;
+
+    private static final int PACKED_CODES = 1 << 15;
+
+    private final String[] codes;
+    private final BigDecimal[] rates;
+    // Packed code -> index + 1; 0 means not in the table
+    private final short[] indexByCode = new short[PACKED_CODES];
+    private final AtomicReferenceArray<BigDecimal[]> crossRates;
+
+    /**
+     * @param rates Rates against the reference currency, in the upstream order; every code
+     *              must be three letters A-Z and every rate positive
+     * @throws IllegalArgumentException on a malformed code or rate
+     */
+    RateTable(Map<String, BigDecimal> rates) {
+        if (rates.size() >= Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many currencies: " + rates.size());
+        }
+        this.codes = new String[rates.size()];
+        this.rates = new BigDecimal[rates.size()];
+        int index = 0;
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            int packed = pack(rate.getKey());
+            if (packed == UNSUPPORTED) {
+                throw new IllegalArgumentException("Invalid currency code: " + rate.getKey());
+            }
+            if (rate.getValue() == null || rate.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("Invalid exchange rate for currency: " + rate.getKey());
+            }
+            codes[index] = rate.getKey();
+            this.rates[index] = rate.getValue();
+            indexByCode[packed] = (short) (index + 1);
+            index++;
+        }
+        this.crossRates = new AtomicReferenceArray<>(codes.length);
+    }
+
+    /**
+     * Index of an upper-case currency code, or UNSUPPORTED.
+     */
+    int indexOf(String code) {
+        int packed = pack(code);
+        return packed == UNSUPPORTED ? UNSUPPORTED : indexByCode[packed] - 1;
+    }
+
+    int size() {
+        return codes.length;
+    }
+
+    String code(int index) {
+        return codes[index];
+    }
+
+    List<String> codes() {
+        return Collections.unmodifiableList(Arrays.asList(codes));
+    }
+
+    /**
+     * Units of currency to for one unit of currency from.
+     */
+    BigDecimal rate(int from, int to) {
+        return crossRatesOf(from)[to];
+    }
+
+    /**
+     * All rates for one unit of the base currency, keyed by code, for API responses.
+     */
+    Map<String, BigDecimal> ratesFor(int base) {
+        BigDecimal[] row = crossRatesOf(base);
+        Map<String, BigDecimal> byCode = new LinkedHashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) {
+            byCode.put(codes[i], row[i]);
+        }
+        return Collections.unmodifiableMap(byCode);
+    }
+
+    private BigDecimal[] crossRatesOf(int base) {
+        BigDecimal[] row = crossRates.get(base);
+        if (row == null) {
+            // Two threads may both compute a row; the results are equal and either one wins
+            row = new BigDecimal[codes.length];
+            BigDecimal divisor = rates[base];
+            for (int i = 0; i < codes.length; i++) {
+                row[i] = i == base ? BigDecimal.ONE : rates[i].divide(divisor, MathContext.DECIMAL64);
+            }
+            crossRates.set(base, row);
+        }
+        return row;
+    }
+
+    private static int pack(String code) {
+        if (code == null || code.length() != 3) {
+            return UNSUPPORTED;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return UNSUPPORTED;
+            }
+            packed = (packed << 5) | letter;
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically evens out the stock buckets of every sharded product, so sales keep
+ * finding a single bucket that covers them instead of falling back to locking all
+ * buckets. Each product is rebalanced in its own transaction; a failure on one
+ * product is logged and retried on the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardedStockRebalancer {
+
+    private final ProductRepository productRepository;
+    private final ShardedStockService shardedStockService;
+
+    @Scheduled(fixedDelayString = "${stock.sharding.rebalance-interval-ms:60000}",
+               initialDelayString = "${stock.sharding.rebalance-interval-ms:60000}")
+    public void rebalanceAll() {
+        for (Long productId : productRepository.findIdsWithShardedStock()) {
+            try {
+                shardedStockService.rebalance(productId);
+            } catch (RuntimeException e) {
+                log.warn("Stock bucket rebalance failed for product {}", productId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.exceptions.AlreadyExistsException;
+import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.ProductStockBucket;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.ProductStockBucketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Striped stock counters for hot SKUs.
+ *
+ * A sharded product keeps its stock in N ProductStockBucket rows instead of one
+ * Product row. A sale picks a random bucket that can cover it and decrements it with
+ * a guarded single-row UPDATE, so N sales can commit in parallel where the Product
+ * row allowed one. Only when no single bucket covers the quantity are all buckets
+ * locked (in bucket order) and drained together. ShardedStockRebalancer evens the
+ * buckets out periodically so that fallback stays rare.
+ *
+ * Lock order is always Product row first, then buckets, for every path that takes both.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShardedStockService {
+
+    public static final int MIN_BUCKETS = 2;
+    public static final int MAX_BUCKETS = 64;
+
+    private final ProductRepository productRepository;
+    private final ProductStockBucketRepository bucketRepository;
+
+    /**
+     * Satış: stoktan düşer. Returns false, with nothing changed, when the buckets
+     * together hold less than the requested quantity.
+     *
+     * Buckets are first read without locks and only those that look large enough are
+     * tried, starting at a random one. This matters on MySQL: under REPEATABLE READ a
+     * guarded UPDATE that matches nothing still keeps its row lock, and a sale holding
+     * such a lock out of bucket order can deadlock against the all-bucket fallback of
+     * another sale. A probe therefore only fails on a genuine race, and InnoDB's deadlock
+     * detection turns the rare remaining cycle into a retryable lock conflict.
+     */
+    @Transactional
+    public boolean tryDecrement(Long productId, int quantity) {
+        List<Object[]> buckets = bucketRepository.findBucketQuantities(productId);
+        int bucketCount = buckets.size();
+        if (bucketCount > 0) {
+            int start = ThreadLocalRandom.current().nextInt(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                Object[] bucket = buckets.get((start + i) % bucketCount);
+                int bucketIndex = ((Number) bucket[0]).intValue();
+                if (((Number) bucket[1]).intValue() >= quantity
+                        && bucketRepository.decrementIfAvailable(productId, bucketIndex, quantity) == 1) {
+                    return true;
+                }
+            }
+        }
+        return drainAcrossBuckets(productId, quantity);
+    }
+
+    /**
+     * Alım / düzeltme: stoğa ekler (rastgele bir kovaya).
+     */
+    @Transactional
+    public void increment(Long productId, int bucketCount, int quantity) {
+        int bucketIndex = ThreadLocalRandom.current().nextInt(bucketCount);
+        if (bucketRepository.increment(productId, bucketIndex, quantity) == 0) {
+            // The product was un-sharded (or re-sharded) after the caller read its bucket count.
+            throw new PessimisticLockingFailureException(
+                    "Stock buckets of product " + productId + " changed concurrently");
+        }
+    }
+
+    /**
+     * Exact stock of a sharded product: the sum of its buckets.
+     */
+    public int totalStock(Long productId) {
+        return Math.toIntExact(bucketRepository.sumQuantityByProductId(productId));
+    }
+
+    /**
+     * Exact stock of several sharded products in one grouped query.
+     */
+    public Map<Long, Integer> totalStock(Collection<Long> productIds) {
+        Map<Long, Integer> totals = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : bucketRepository.sumQuantityByProductIds(productIds)) {
+            totals.put((Long) row[0], Math.toIntExact(((Number) row[1]).longValue()));
+        }
+        return totals;
+    }
+
+    /**
+     * Ürünü sıcak SKU olarak işaretle: mevcut stoğu N kovaya eşit dağıt.
+     */
+    @Transactional
+    public Product enableSharding(Long productId, int bucketCount) {
+        if (bucketCount < MIN_BUCKETS || bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException(
+                    "Bucket count must be between " + MIN_BUCKETS + " and " + MAX_BUCKETS);
+        }
+
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+        if (product.getStockBucketCount() > 0) {
+            throw new AlreadyExistsException("Stock of product " + productId + " is already sharded");
+        }
+
+        int[] split = evenSplit(product.getStockQuantity(), bucketCount);
+        List<ProductStockBucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ProductStockBucket(null, product, i, split[i]));
+        }
+        bucketRepository.saveAll(buckets);
+
+        product.setStockBucketCount(bucketCount);
+        return product;
+    }
+
+    /**
+     * Sharding'i kapat: kovaları toplayıp tek satıra geri yaz.
+     */
+    @Transactional
+    public Product disableSharding(Long productId) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+        if (product.getStockBucketCount() == 0) {
+            return product;
+        }
+
+        int total = sum(bucketRepository.lockBucketQuantities(productId));
+        bucketRepository.deleteByProductId(productId);
+
+        product.setStockQuantity(total);
+        product.setStockBucketCount(0);
+        return product;
+    }
+
+    /**
+     * Spreads the product's stock evenly over its buckets again and refreshes the
+     * Product.stockQuantity snapshot. Runs in its own short transaction per product.
+     */
+    @Transactional
+    public void rebalance(Long productId) {
+        Product product = productRepository.findByIdForUpdate(productId).orElse(null);
+        if (product == null || product.getStockBucketCount() == 0) {
+            return;
+        }
+
+        List<Object[]> rows = bucketRepository.lockBucketQuantities(productId);
+        int total = sum(rows);
+        int[] target = evenSplit(total, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            int bucketIndex = ((Number) rows.get(i)[0]).intValue();
+            if (((Number) rows.get(i)[1]).intValue() != target[i]) {
+                bucketRepository.setQuantity(productId, bucketIndex, target[i]);
+            }
+        }
+
+        product.setStockQuantity(total);
+    }
+
+    /**
+     * Deletes the buckets of a product that is itself being deleted.
+     */
+    @Transactional
+    public void dropBuckets(Long productId) {
+        bucketRepository.deleteByProductId(productId);
+    }
+
+    /**
+     * Slow path: the quantity is spread over several buckets. All buckets are locked,
+     * so the check and the drain see the same totals.
+     */
+    private boolean drainAcrossBuckets(Long productId, int quantity) {
+        List<Object[]> rows = bucketRepository.lockBucketQuantities(productId);
+        if (sum(rows) < quantity) {
+            return false;
+        }
+
+        int remaining = quantity;
+        for (Object[] row : rows) {
+            int take = Math.min(remaining, ((Number) row[1]).intValue());
+            if (take > 0) {
+                bucketRepository.decrementIfAvailable(productId, ((Number) row[0]).intValue(), take);
+                remaining -= take;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private int sum(List<Object[]> bucketRows) {
+        long total = 0;
+        for (Object[] row : bucketRows) {
+            total += ((Number) row[1]).longValue();
+        }
+        return Math.toIntExact(total);
+    }
+
+    private int[] evenSplit(int total, int parts) {
+        int[] split = new int[parts];
+        for (int i = 0; i < parts; i++) {
+            split[i] = total / parts + (i < total % parts ? 1 : 0);
+        }
+        return split;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One acknowledged stock transaction of the write-behind ledger, exactly as it is
+ * written to the journal and later flushed into stock_transactions.
+ */
+@Getter
+@AllArgsConstructor
+final class StockLedgerEntry {
+
+    private final long journalSequence;
+    private final long productId;
+    private final long userId;
+    private final TransactionType transactionType;
+    private final int quantity;
+    private final BigDecimal unitPrice;
+    private final String notes;
+    private final LocalDateTime transactionDate;
+
+    /** Signed change this entry makes to the product's stock. */
+    int stockDelta() {
+        return transactionType == TransactionType.SALE ? -quantity : quantity;
+    }
+
+    BigDecimal totalPrice() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
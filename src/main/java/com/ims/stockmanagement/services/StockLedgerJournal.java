@@ -0,0 +1,294 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.enums.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of one write-behind ledger partition.
+ *
+ * Every record is framed as [payload length][CRC32C of payload][payload]. A group of
+ * records is written with one positional write and made durable with one force() -
+ * the group commit - before any of them is acknowledged. The journal is split into
+ * segments named after the sequence of their first record; a closed segment is
+ * deleted once all of its records are in the database.
+ *
+ * Not thread-safe: a journal is owned by its partition's writer thread.
+ */
+@Slf4j
+final class StockLedgerJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "stock-ledger-p";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int partition;
+    private final long segmentBytes;
+    private final Deque<ClosedSegment> closedSegments = new ArrayDeque<>();
+
+    private FileChannel channel;
+    private Path currentSegment;
+    private long position;
+    private long lastSequence;
+    private boolean broken;
+
+    StockLedgerJournal(Path directory, int partition, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.partition = partition;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Appends the records and forces them to disk. When this returns normally every
+     * record is durable; when it throws, none of them is in the journal.
+     */
+    void append(List<StockLedgerEntry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (broken) {
+            throw new IOException("Stock ledger journal of partition " + partition + " is unusable after a failed write");
+        }
+        if (channel == null) {
+            openSegment(entries.get(0).getJournalSequence());
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(entries.size() * 128);
+        DataOutputStream out = new DataOutputStream(buffer);
+        for (StockLedgerEntry entry : entries) {
+            writeFrame(out, entry);
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        long start = position;
+        try {
+            long at = start;
+            while (bytes.hasRemaining()) {
+                at += channel.write(bytes, at);
+            }
+            channel.force(false);
+            position = at;
+        } catch (IOException e) {
+            // Cut the partial group off so later records are not hidden behind a torn frame.
+            try {
+                channel.truncate(start);
+                channel.force(false);
+            } catch (IOException truncateFailure) {
+                broken = true;
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+
+        lastSequence = entries.get(entries.size() - 1).getJournalSequence();
+        if (position >= segmentBytes) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Deletes every closed segment whose records are all at or below the given
+     * journal sequence, i.e. already committed to the database.
+     */
+    void release(long flushedSequence) {
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence <= flushedSequence) {
+            Path segment = closedSegments.pollFirst().path;
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete flushed stock ledger segment {}", segment, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Reads every record in the directory, partition by partition, oldest first. An
+     * incomplete or corrupt record at the very end of a partition's newest segment is
+     * a write that was interrupted before it was acknowledged and is skipped; anywhere
+     * else it means the journal is damaged.
+     */
+    static List<StockLedgerEntry> readAll(Path directory) throws IOException {
+        Map<Integer, List<Path>> segmentsByPartition = new TreeMap<>();
+        for (Path segment : segments(directory)) {
+            segmentsByPartition.computeIfAbsent(partitionOf(segment), partition -> new ArrayList<>()).add(segment);
+        }
+
+        List<StockLedgerEntry> entries = new ArrayList<>();
+        for (List<Path> segments : segmentsByPartition.values()) {
+            for (int i = 0; i < segments.size(); i++) {
+                readSegment(segments.get(i), entries, i == segments.size() - 1);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes every segment in the directory (after it has been replayed).
+     */
+    static void deleteAll(Path directory) throws IOException {
+        for (Path segment : segments(directory)) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        currentSegment = directory.resolve(
+                SEGMENT_PREFIX + partition + "-" + String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(currentSegment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        position = 0;
+        forceDirectory();
+    }
+
+    private void closeSegment() throws IOException {
+        channel.close();
+        channel = null;
+        closedSegments.addLast(new ClosedSegment(currentSegment, lastSequence));
+        currentSegment = null;
+    }
+
+    /** Makes the new segment's directory entry durable too; not supported on every platform. */
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Directory fsync not supported for {}", directory);
+        }
+    }
+
+    /** All segment files, sorted by partition and then by first sequence (zero-padded names). */
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int partitionOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.indexOf('-', SEGMENT_PREFIX.length())));
+    }
+
+    private static void readSegment(Path segment, List<StockLedgerEntry> into, boolean newest) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException endOfSegment) {
+                    return;
+                }
+                try {
+                    int checksum = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        damaged(segment, newest);
+                        return;
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    if (checksum != checksum(payload)) {
+                        damaged(segment, newest);
+                        return;
+                    }
+                    into.add(decode(payload));
+                } catch (EOFException tornFrame) {
+                    damaged(segment, newest);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void damaged(Path segment, boolean newest) {
+        if (!newest) {
+            throw new IllegalStateException("Stock ledger journal segment " + segment + " is corrupt");
+        }
+        log.warn("Skipping incomplete record at the end of {}; it was never acknowledged", segment);
+    }
+
+    private static void writeFrame(DataOutputStream out, StockLedgerEntry entry) throws IOException {
+        byte[] payload = encode(entry);
+        out.writeInt(payload.length);
+        out.writeInt(checksum(payload));
+        out.write(payload);
+    }
+
+    private static byte[] encode(StockLedgerEntry entry) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeLong(entry.getJournalSequence());
+        out.writeLong(entry.getProductId());
+        out.writeLong(entry.getUserId());
+        out.writeUTF(entry.getTransactionType().name());
+        out.writeInt(entry.getQuantity());
+        out.writeUTF(entry.getUnitPrice().toPlainString());
+        out.writeBoolean(entry.getNotes() != null);
+        if (entry.getNotes() != null) {
+            out.writeUTF(entry.getNotes());
+        }
+        out.writeUTF(entry.getTransactionDate().toString());
+        return buffer.toByteArray();
+    }
+
+    private static StockLedgerEntry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long journalSequence = in.readLong();
+        long productId = in.readLong();
+        long userId = in.readLong();
+        TransactionType type = TransactionType.valueOf(in.readUTF());
+        int quantity = in.readInt();
+        BigDecimal unitPrice = new BigDecimal(in.readUTF());
+        String notes = in.readBoolean() ? in.readUTF() : null;
+        LocalDateTime transactionDate = LocalDateTime.parse(in.readUTF());
+        return new StockLedgerEntry(journalSequence, productId, userId, type, quantity, unitPrice, notes, transactionDate);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private record ClosedSegment(Path path, long lastSequence) {
+    }
+}
@@ -1,13 +1,17 @@
 package com.ims.stockmanagement.services;
 
+import com.ims.stockmanagement.dtos.BatchTransactionLineResult;
+import com.ims.stockmanagement.dtos.BatchTransactionRequest;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.dtos.TransactionDTO;
 import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.StockLockingMode;
 import com.ims.stockmanagement.enums.TransactionStatus;
 import com.ims.stockmanagement.enums.TransactionType;
 import com.ims.stockmanagement.enums.UserRole;
 import com.ims.stockmanagement.exceptions.InsufficientStockException;
 import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.mappers.TransactionMapper;
 import com.ims.stockmanagement.models.Product;
 import com.ims.stockmanagement.models.StockTransaction;
 import com.ims.stockmanagement.models.User;
@@ -15,8 +19,9 @@ import com.ims.stockmanagement.repositories.ProductRepository;
 import com.ims.stockmanagement.repositories.StockTransactionRepository;
 import com.ims.stockmanagement.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -27,7 +32,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,7 +48,11 @@ public class StockTransactionService {
     private final StockTransactionRepository transactionRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final ShardedStockService shardedStockService;
+    private final TransactionMapper transactionMapper;
+
+    @Value("${stock.sale.locking-mode:PESSIMISTIC}")
+    private StockLockingMode saleLockingMode = StockLockingMode.PESSIMISTIC;
 
     /**
      * Tüm işlemleri listele (READ - CRUD)
@@ -46,7 +61,7 @@ public class StockTransactionService {
     public Response getAllTransactions() {
         List<StockTransaction> transactions = transactionRepository.findAllWithProductAndUser();
         List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
+                .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
@@ -59,13 +74,11 @@ public class StockTransactionService {
 
     /**
      * Tüm işlemleri sayfalı listele
-     * N+1 optimized: Uses FETCH JOIN to load product and user in single query
+     * Rows are read straight into TransactionDTO (no Product/User entities loaded)
      */
     public Response getAllTransactions(Pageable pageable) {
-        Page<StockTransaction> transactionPage = transactionRepository.findAllWithProductAndUser(pageable);
-        List<TransactionDTO> transactionDTOs = transactionPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Page<TransactionDTO> transactionPage = transactionRepository.findAllTransactionDTOs(pageable);
+        List<TransactionDTO> transactionDTOs = transactionPage.getContent();
 
         // Same contract as the product list: explicit pagination fields, and no raw
         // Page or StockTransaction entity in the payload.
@@ -81,6 +94,53 @@ public class StockTransactionService {
                 .build();
     }
 
+    /**
+     * İşlemleri imleçle (keyset) listele, en yeni önce
+     * No total count: every page is one index range scan, however deep it is.
+     */
+    public Response getTransactionsAfter(String after, int limit) {
+        return keysetPage(after, limit, transactionRepository::findFirstTransactionDTOs,
+                transactionRepository::findTransactionDTOsAfter, "Transactions retrieved successfully");
+    }
+
+    /**
+     * One keyset page: the first rows, or the rows after the cursor; one extra row tells
+     * whether there is a next page
+     */
+    private Response keysetPage(String after, int limit,
+                                Function<Pageable, List<TransactionDTO>> first,
+                                KeysetQuery next, String message) {
+        Pageable pageSize = PageRequest.of(0, limit + 1);
+        List<TransactionDTO> transactionDTOs;
+        if (after == null) {
+            transactionDTOs = first.apply(pageSize);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            transactionDTOs = next.find(cursor.timestamp(), cursor.id(), pageSize);
+        }
+
+        String nextCursor = null;
+        if (transactionDTOs.size() > limit) {
+            transactionDTOs = transactionDTOs.subList(0, limit);
+            TransactionDTO last = transactionDTOs.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getTransactionDate(), last.getId()).encode();
+        }
+
+        return Response.builder()
+                .statusCode(200)
+                .message(message)
+                .transactionList(transactionDTOs)
+                .size(limit)
+                .nextCursor(nextCursor)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<TransactionDTO> find(LocalDateTime transactionDate, Long id, Pageable pageable);
+    }
+
     /**
      * Ürün satın alma (PURCHASE)
      */
@@ -120,7 +180,7 @@ public class StockTransactionService {
             TransactionStatus newStatus = TransactionStatus.valueOf(statusStr.toUpperCase());
             transaction.setStatus(newStatus);
             StockTransaction updatedTransaction = transactionRepository.save(transaction);
-            TransactionDTO transactionDTO = convertToDTO(updatedTransaction);
+            TransactionDTO transactionDTO = transactionMapper.toDTO(updatedTransaction);
 
             return Response.builder()
                     .statusCode(200)
@@ -145,7 +205,7 @@ public class StockTransactionService {
         StockTransaction transaction = transactionRepository.findByIdWithProductAndUser(id)
                 .orElseThrow(() -> new NotFoundException("Transaction not found with id: " + id));
 
-        TransactionDTO transactionDTO = convertToDTO(transaction);
+        TransactionDTO transactionDTO = transactionMapper.toDTO(transaction);
 
         return Response.builder()
                 .statusCode(200)
@@ -163,10 +223,27 @@ public class StockTransactionService {
      */
     @Transactional
     public Response createTransaction(TransactionRequest request) {
+        // Sharded (hot) products never take the Product row lock.
+        if (productRepository.findStockBucketCountById(request.getProductId()).orElse(0) > 0) {
+            Product product = productRepository.findById(request.getProductId())
+                    .orElseThrow(() -> new NotFoundException("Product not found with id: " + request.getProductId()));
+            return createShardedTransaction(product, request);
+        }
+
+        if (request.getTransactionType() == TransactionType.SALE
+                && saleLockingMode == StockLockingMode.CONDITIONAL_UPDATE) {
+            return createSaleWithConditionalUpdate(request);
+        }
+
         // Ürün kontrolü - stok mutasyonunu seri hale getirmek için satır kilidi ile yükle
         Product product = productRepository.findByIdForUpdate(request.getProductId())
                 .orElseThrow(() -> new NotFoundException("Product not found with id: " + request.getProductId()));
 
+        // Sharding was enabled between the pre-check and the lock.
+        if (product.getStockBucketCount() > 0) {
+            return createShardedTransaction(product, request);
+        }
+
         // Transaction actor is always the authenticated user, never client input.
         User user = requireAuthenticatedUser();
 
@@ -174,29 +251,81 @@ public class StockTransactionService {
         if (request.getTransactionType() == TransactionType.SALE) {
             if (product.getStockQuantity() < request.getQuantity()) {
                 throw new InsufficientStockException(
-                        "Insufficient stock for product: " + product.getName() +
-                        ". Available: " + product.getStockQuantity() +
-                        ", Requested: " + request.getQuantity()
-                );
+                        insufficientStockMessage(product.getName(), product.getStockQuantity(), request.getQuantity()));
             }
         }
 
         // Transaction oluştur
-        StockTransaction transaction = new StockTransaction();
-        transaction.setProduct(product);
-        transaction.setUser(user);
-        transaction.setTransactionType(request.getTransactionType());
-        transaction.setQuantity(request.getQuantity());
-        transaction.setUnitPrice(request.getUnitPrice() != null ? request.getUnitPrice() : product.getPrice());
-        transaction.setTotalPrice(transaction.getUnitPrice().multiply(BigDecimal.valueOf(request.getQuantity())));
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setNotes(request.getNotes());
+        StockTransaction transaction = buildTransaction(product, user, request);
 
         // Stok güncelle
         updateProductStock(product, request.getTransactionType(), request.getQuantity());
 
         StockTransaction savedTransaction = transactionRepository.save(transaction);
-        TransactionDTO transactionDTO = convertToDTO(savedTransaction);
+        TransactionDTO transactionDTO = transactionMapper.toDTO(savedTransaction);
+
+        return Response.builder()
+                .statusCode(201)
+                .message("Transaction created successfully")
+                .transaction(transactionDTO)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Sharded ürün için stok işlemi
+     *
+     * Same shape as the conditional-update sale: the ledger row is written and mapped
+     * first, and the stock change - a single bucket UPDATE in the common case - comes
+     * last, so bucket locks are held only from that statement to commit.
+     */
+    private Response createShardedTransaction(Product product, TransactionRequest request) {
+        // Transaction actor is always the authenticated user, never client input.
+        User user = requireAuthenticatedUser();
+
+        StockTransaction savedTransaction = transactionRepository.saveAndFlush(buildTransaction(product, user, request));
+        TransactionDTO transactionDTO = transactionMapper.toDTO(savedTransaction);
+
+        if (!applyShardedStockDelta(product, request.getTransactionType(), request.getQuantity())) {
+            throw new InsufficientStockException(insufficientStockMessage(
+                    product.getName(), shardedStockService.totalStock(product.getId()), request.getQuantity()));
+        }
+
+        return Response.builder()
+                .statusCode(201)
+                .message("Transaction created successfully")
+                .transaction(transactionDTO)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Satış - koşullu UPDATE modu (stock.sale.locking-mode=CONDITIONAL_UPDATE)
+     *
+     * No lock is taken while the product is read, the ledger row is written and the DTO is
+     * mapped. The stock check and decrement are a single guarded UPDATE issued last, so the
+     * row lock lasts from that statement to commit. Zero rows updated means another sale got
+     * there first: the exception rolls the ledger row back with the rest of the transaction.
+     */
+    private Response createSaleWithConditionalUpdate(TransactionRequest request) {
+        Product product = productRepository.findById(request.getProductId())
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + request.getProductId()));
+
+        // Transaction actor is always the authenticated user, never client input.
+        User user = requireAuthenticatedUser();
+
+        // Flushed now so the INSERT does not run after the UPDATE, inside the locked window.
+        StockTransaction savedTransaction = transactionRepository.saveAndFlush(buildTransaction(product, user, request));
+        TransactionDTO transactionDTO = transactionMapper.toDTO(savedTransaction);
+
+        int updated = productRepository.decrementStockIfAvailable(
+                product.getId(), request.getQuantity(), LocalDateTime.now());
+        if (updated == 0) {
+            int available = productRepository.findStockQuantityById(product.getId())
+                    .orElseThrow(() -> new NotFoundException("Product not found with id: " + product.getId()));
+            throw new InsufficientStockException(
+                    insufficientStockMessage(product.getName(), available, request.getQuantity()));
+        }
 
         return Response.builder()
                 .statusCode(201)
@@ -206,6 +335,103 @@ public class StockTransactionService {
                 .build();
     }
 
+    /**
+     * Toplu stok işlemi (BATCH)
+     *
+     * All touched Product rows are locked once, in ascending id order, in a single
+     * statement; every quantity delta is then applied to those locked entities in memory,
+     * so a product that appears on many lines is updated by one UPDATE at commit. The
+     * ledger rows go out as one JDBC batch.
+     *
+     * Lines are evaluated in request order against the running in-memory stock, exactly
+     * as if they had been posted one after another. A rejected line (unknown product,
+     * insufficient stock) is reported in its result and skipped, unless the caller asked
+     * for an atomic batch: then the first rejection is thrown and the whole batch rolls back.
+     */
+    @Transactional
+    public Response createTransactionBatch(BatchTransactionRequest batchRequest) {
+        List<TransactionRequest> lines = batchRequest.getTransactions();
+
+        // Transaction actor is always the authenticated user, never client input.
+        User user = requireAuthenticatedUser();
+
+        // TreeSet: the lock query receives the ids already in ascending order.
+        Set<Long> productIds = new TreeSet<>();
+        for (TransactionRequest line : lines) {
+            productIds.add(line.getProductId());
+        }
+
+        Map<Long, Product> lockedProducts = new HashMap<>();
+        for (Product product : productRepository.findAllByIdInForUpdate(productIds)) {
+            lockedProducts.put(product.getId(), product);
+        }
+
+        List<BatchTransactionLineResult> results = new ArrayList<>(lines.size());
+        List<StockTransaction> acceptedTransactions = new ArrayList<>();
+        List<BatchTransactionLineResult> acceptedResults = new ArrayList<>();
+
+        for (int index = 0; index < lines.size(); index++) {
+            TransactionRequest line = lines.get(index);
+            Product product = lockedProducts.get(line.getProductId());
+
+            if (product == null) {
+                String message = "Product not found with id: " + line.getProductId();
+                if (batchRequest.isAtomic()) {
+                    throw new NotFoundException(message);
+                }
+                results.add(new BatchTransactionLineResult(index, 404, message, null));
+                continue;
+            }
+
+            boolean applied;
+            if (product.getStockBucketCount() > 0) {
+                applied = applyShardedStockDelta(product, line.getTransactionType(), line.getQuantity());
+            } else if (line.getTransactionType() == TransactionType.SALE
+                    && product.getStockQuantity() < line.getQuantity()) {
+                applied = false;
+            } else {
+                // Only the locked, managed entity is mutated; dirty checking writes it once at commit.
+                applyStockDelta(product, line.getTransactionType(), line.getQuantity());
+                applied = true;
+            }
+
+            if (!applied) {
+                int available = product.getStockBucketCount() > 0
+                        ? shardedStockService.totalStock(product.getId())
+                        : product.getStockQuantity();
+                String message = insufficientStockMessage(product.getName(), available, line.getQuantity());
+                if (batchRequest.isAtomic()) {
+                    throw new InsufficientStockException(message);
+                }
+                results.add(new BatchTransactionLineResult(index, 422, message, null));
+                continue;
+            }
+
+            acceptedTransactions.add(buildTransaction(product, user, line));
+
+            BatchTransactionLineResult result =
+                    new BatchTransactionLineResult(index, 201, "Transaction created successfully", null);
+            acceptedResults.add(result);
+            results.add(result);
+        }
+
+        // Ids are pre-allocated by the table generator, so these inserts are sent as JDBC batches.
+        transactionRepository.saveAll(acceptedTransactions);
+
+        for (int i = 0; i < acceptedTransactions.size(); i++) {
+            acceptedResults.get(i).setTransaction(transactionMapper.toDTO(acceptedTransactions.get(i)));
+        }
+
+        int rejected = lines.size() - acceptedTransactions.size();
+        return Response.builder()
+                // 207: the batch itself was processed, but not every line was applied.
+                .statusCode(rejected == 0 ? 201 : 207)
+                .message("Batch processed: " + acceptedTransactions.size() + " created, " + rejected + " rejected")
+                .batchResults(results)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     /**
      * İşlem sil (DELETE - CRUD)
      * Not: Stok işlemi silme genelde önerilmez, ancak CRUD için eklendi
@@ -224,13 +450,6 @@ public class StockTransactionService {
 
         switch (transaction.getTransactionType()) {
             case PURCHASE:
-                int stockAfterPurchaseReversal = product.getStockQuantity() - transaction.getQuantity();
-                if (stockAfterPurchaseReversal < 0) {
-                    throw new InsufficientStockException(
-                            "Insufficient stock to reverse purchase transaction " + transaction.getId() +
-                            ". Available: " + product.getStockQuantity() +
-                            ", Required: " + transaction.getQuantity());
-                }
                 reverseType = TransactionType.SALE;
                 break;
             case SALE:
@@ -240,7 +459,17 @@ public class StockTransactionService {
                 reverseType = TransactionType.ADJUSTMENT;
         }
 
-        updateProductStock(product, reverseType, transaction.getQuantity());
+        if (product.getStockBucketCount() > 0) {
+            if (!applyShardedStockDelta(product, reverseType, transaction.getQuantity())) {
+                throw new InsufficientStockException(purchaseReversalMessage(
+                        transaction, shardedStockService.totalStock(product.getId())));
+            }
+        } else {
+            if (reverseType == TransactionType.SALE && product.getStockQuantity() < transaction.getQuantity()) {
+                throw new InsufficientStockException(purchaseReversalMessage(transaction, product.getStockQuantity()));
+            }
+            updateProductStock(product, reverseType, transaction.getQuantity());
+        }
 
         transactionRepository.delete(transaction);
 
@@ -252,35 +481,27 @@ public class StockTransactionService {
     }
 
     /**
-     * Ürüne göre işlemleri getir
-     * N+1 optimized: Uses FETCH JOIN to load product and user in single query
+     * Ürüne göre işlemleri imleçle (keyset) getir, en yeni önce
      */
-    public Response getTransactionsByProduct(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
-
-        List<StockTransaction> transactions = transactionRepository.findByProductWithRelations(product);
-        List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Response getTransactionsByProduct(Long productId, String after, int limit) {
+        if (!productRepository.existsById(productId)) {
+            throw new NotFoundException("Product not found with id: " + productId);
+        }
 
-        return Response.builder()
-                .statusCode(200)
-                .message("Transactions found: " + transactionDTOs.size())
-                .transactionList(transactionDTOs)
-                .timestamp(LocalDateTime.now())
-                .build();
+        return keysetPage(after, limit,
+                pageable -> transactionRepository.findFirstTransactionDTOsByProduct(productId, pageable),
+                (date, id, pageable) -> transactionRepository.findTransactionDTOsByProductAfter(productId, date, id, pageable),
+                "Transactions retrieved successfully");
     }
 
     /**
-     * Kullanıcıya göre işlemleri getir
-     * N+1 optimized: Uses FETCH JOIN to load product and user in single query
+     * Kullanıcıya göre işlemleri imleçle (keyset) getir, en yeni önce
      *
      * Authorization: an ADMIN may read any user's history; a normal USER may read only
      * their own. Enforced here rather than in the controller so every caller of this
      * service - not only the HTTP route - is subject to the same rule.
      */
-    public Response getTransactionsByUser(Long userId) {
+    public Response getTransactionsByUser(Long userId, String after, int limit) {
         User currentUser = requireAuthenticatedUser();
 
         // Decided before the target is loaded, so a denied caller cannot use the
@@ -290,20 +511,14 @@ public class StockTransactionService {
                     "User " + currentUser.getId() + " may not read the transaction history of user " + userId);
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
-
-        List<StockTransaction> transactions = transactionRepository.findByUserWithRelations(user);
-        List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found with id: " + userId);
+        }
 
-        return Response.builder()
-                .statusCode(200)
-                .message("Transactions found: " + transactionDTOs.size())
-                .transactionList(transactionDTOs)
-                .timestamp(LocalDateTime.now())
-                .build();
+        return keysetPage(after, limit,
+                pageable -> transactionRepository.findFirstTransactionDTOsByUser(userId, pageable),
+                (date, id, pageable) -> transactionRepository.findTransactionDTOsByUserAfter(userId, date, id, pageable),
+                "Transactions retrieved successfully");
     }
 
     /**
@@ -313,7 +528,7 @@ public class StockTransactionService {
     public Response getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         List<StockTransaction> transactions = transactionRepository.findByTransactionDateBetweenWithRelations(startDate, endDate);
         List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
+                .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
@@ -325,21 +540,13 @@ public class StockTransactionService {
     }
 
     /**
-     * İşlem tipine göre işlemleri getir
-     * N+1 optimized: Uses FETCH JOIN to load product and user in single query
+     * İşlem tipine göre işlemleri imleçle (keyset) getir, en yeni önce
      */
-    public Response getTransactionsByType(TransactionType type) {
-        List<StockTransaction> transactions = transactionRepository.findByTransactionTypeWithRelations(type);
-        List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        return Response.builder()
-                .statusCode(200)
-                .message("Transactions found: " + transactionDTOs.size())
-                .transactionList(transactionDTOs)
-                .timestamp(LocalDateTime.now())
-                .build();
+    public Response getTransactionsByType(TransactionType type, String after, int limit) {
+        return keysetPage(after, limit,
+                pageable -> transactionRepository.findFirstTransactionDTOsByType(type, pageable),
+                (date, id, pageable) -> transactionRepository.findTransactionDTOsByTypeAfter(type, date, id, pageable),
+                "Transactions retrieved successfully");
     }
 
     /**
@@ -366,7 +573,7 @@ public class StockTransactionService {
         }
 
         StockTransaction updatedTransaction = transactionRepository.save(transaction);
-        TransactionDTO transactionDTO = convertToDTO(updatedTransaction);
+        TransactionDTO transactionDTO = transactionMapper.toDTO(updatedTransaction);
 
         return Response.builder()
                 .statusCode(200)
@@ -405,42 +612,72 @@ public class StockTransactionService {
     }
 
     /**
-     * Ürün stok güncellemesi
+     * Yeni ledger satırı oluştur (henüz kaydedilmemiş)
      */
-    private void updateProductStock(Product product, TransactionType type, Integer quantity) {
+    private StockTransaction buildTransaction(Product product, User user, TransactionRequest request) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setProduct(product);
+        transaction.setUser(user);
+        transaction.setTransactionType(request.getTransactionType());
+        transaction.setQuantity(request.getQuantity());
+        transaction.setUnitPrice(request.getUnitPrice() != null ? request.getUnitPrice() : product.getPrice());
+        transaction.setTotalPrice(transaction.getUnitPrice().multiply(BigDecimal.valueOf(request.getQuantity())));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setNotes(request.getNotes());
+        return transaction;
+    }
+
+    private String insufficientStockMessage(String productName, Integer availableQuantity, Integer requestedQuantity) {
+        return "Insufficient stock for product: " + productName +
+                ". Available: " + availableQuantity +
+                ", Requested: " + requestedQuantity;
+    }
+
+    private String purchaseReversalMessage(StockTransaction transaction, int availableQuantity) {
+        return "Insufficient stock to reverse purchase transaction " + transaction.getId() +
+                ". Available: " + availableQuantity +
+                ", Required: " + transaction.getQuantity();
+    }
+
+    /**
+     * Sharded ürünün kovalarına stok değişikliği uygular. Returns false only for a
+     * decrement the buckets cannot cover; nothing is changed in that case.
+     */
+    private boolean applyShardedStockDelta(Product product, TransactionType type, Integer quantity) {
         switch (type) {
             case PURCHASE:
             case ADJUSTMENT:
-                product.setStockQuantity(product.getStockQuantity() + quantity);
-                break;
+                shardedStockService.increment(product.getId(), product.getStockBucketCount(), quantity);
+                return true;
             case SALE:
-                product.setStockQuantity(product.getStockQuantity() - quantity);
-                break;
+                return shardedStockService.tryDecrement(product.getId(), quantity);
             default:
                 throw new IllegalArgumentException("Unknown transaction type: " + type);
         }
-        productRepository.save(product);
     }
 
     /**
-     * StockTransaction entity'yi DTO'ya dönüştür
+     * Ürün stok güncellemesi
      */
-    private TransactionDTO convertToDTO(StockTransaction transaction) {
-        TransactionDTO dto = modelMapper.map(transaction, TransactionDTO.class);
-
-        // Null safety for product
-        if (transaction.getProduct() != null) {
-            dto.setProductId(transaction.getProduct().getId());
-            dto.setProductName(transaction.getProduct().getName());
-            dto.setProductSku(transaction.getProduct().getSku());
-        }
+    private void updateProductStock(Product product, TransactionType type, Integer quantity) {
+        applyStockDelta(product, type, quantity);
+        productRepository.save(product);
+    }
 
-        // Null safety for user
-        if (transaction.getUser() != null) {
-            dto.setUserId(transaction.getUser().getId());
-            dto.setUsername(transaction.getUser().getUsername());
+    /**
+     * Stok değişikliğini yalnızca bellekteki entity'ye uygular
+     */
+    private void applyStockDelta(Product product, TransactionType type, Integer quantity) {
+        switch (type) {
+            case PURCHASE:
+            case ADJUSTMENT:
+                product.setStockQuantity(product.getStockQuantity() + quantity);
+                break;
+            case SALE:
+                product.setStockQuantity(product.getStockQuantity() - quantity);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transaction type: " + type);
         }
-
-        return dto;
     }
 }
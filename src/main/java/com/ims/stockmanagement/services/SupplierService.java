@@ -4,10 +4,14 @@ import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.dtos.SupplierDTO;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
 import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.mappers.SupplierMapper;
 import com.ims.stockmanagement.models.Supplier;
 import com.ims.stockmanagement.repositories.SupplierRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,21 +24,46 @@ import java.util.stream.Collectors;
 public class SupplierService {
 
     private final SupplierRepository supplierRepository;
-    private final ModelMapper modelMapper;
+    private final SupplierMapper supplierMapper;
+
+    @Value("${api.list.unpaged-limit:1000}")
+    private int unpagedLimit = 1000;
 
     /**
      * Tüm tedarikçileri listele (READ - CRUD)
+     * Unpaged for dropdowns, but capped at api.list.unpaged-limit rows
      */
     public Response getAllSuppliers() {
-        List<Supplier> suppliers = supplierRepository.findAll();
+        List<Supplier> suppliers = supplierRepository.findAllBy(PageRequest.of(0, unpagedLimit, Sort.by("id")));
         List<SupplierDTO> supplierDTOs = suppliers.stream()
-                .map(supplier -> modelMapper.map(supplier, SupplierDTO.class))
+                .map(supplierMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return Response.builder()
+                .statusCode(200)
+                .message("Suppliers retrieved successfully")
+                .supplierList(supplierDTOs)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Tüm tedarikçileri sayfalı listele
+     */
+    public Response getAllSuppliers(int page, int size) {
+        Page<Supplier> supplierPage = supplierRepository.findAll(PageRequest.of(page, size, Sort.by("id")));
+        List<SupplierDTO> supplierDTOs = supplierPage.getContent().stream()
+                .map(supplierMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
                 .statusCode(200)
                 .message("Suppliers retrieved successfully")
                 .supplierList(supplierDTOs)
+                .page(supplierPage.getNumber())
+                .size(supplierPage.getSize())
+                .totalPages(supplierPage.getTotalPages())
+                .totalElements(supplierPage.getTotalElements())
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -46,7 +75,7 @@ public class SupplierService {
         Supplier supplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Supplier not found with id: " + id));
 
-        SupplierDTO supplierDTO = modelMapper.map(supplier, SupplierDTO.class);
+        SupplierDTO supplierDTO = supplierMapper.toDTO(supplier);
 
         return Response.builder()
                 .statusCode(200)
@@ -67,9 +96,9 @@ public class SupplierService {
             throw new AlreadyExistsException("Supplier already exists with email: " + supplierDTO.getEmail());
         }
 
-        Supplier supplier = modelMapper.map(supplierDTO, Supplier.class);
+        Supplier supplier = supplierMapper.toEntity(supplierDTO);
         Supplier savedSupplier = supplierRepository.save(supplier);
-        SupplierDTO savedSupplierDTO = modelMapper.map(savedSupplier, SupplierDTO.class);
+        SupplierDTO savedSupplierDTO = supplierMapper.toDTO(savedSupplier);
 
         return Response.builder()
                 .statusCode(201)
@@ -105,7 +134,7 @@ public class SupplierService {
         existingSupplier.setDescription(supplierDTO.getDescription());
 
         Supplier updatedSupplier = supplierRepository.save(existingSupplier);
-        SupplierDTO updatedSupplierDTO = modelMapper.map(updatedSupplier, SupplierDTO.class);
+        SupplierDTO updatedSupplierDTO = supplierMapper.toDTO(updatedSupplier);
 
         return Response.builder()
                 .statusCode(200)
@@ -146,7 +175,7 @@ public class SupplierService {
     public Response searchSuppliersByName(String name) {
         List<Supplier> suppliers = supplierRepository.findByNameContainingIgnoreCase(name);
         List<SupplierDTO> supplierDTOs = suppliers.stream()
-                .map(supplier -> modelMapper.map(supplier, SupplierDTO.class))
+                .map(supplierMapper::toDTO)
                 .collect(Collectors.toList());
 
         return Response.builder()
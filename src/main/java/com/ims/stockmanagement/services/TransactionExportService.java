@@ -0,0 +1,143 @@
+package com.ims.stockmanagement.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ims.stockmanagement.dtos.TransactionDTO;
+import com.ims.stockmanagement.enums.ExportFormat;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * İşlem defterini dışa aktar (NDJSON / CSV)
+ * Rows go from the JDBC cursor straight to the response stream, one at a time, so an
+ * export of any size runs in constant memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    // Open range ends, within MySQL's DATETIME range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final String CSV_HEADER = "id,transactionDate,transactionType,status,productId,productSku," +
+            "productName,quantity,unitPrice,totalPrice,userId,username,notes";
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final StockTransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every transaction with from <= transactionDate < to (either end may be null),
+     * oldest first, to the output. Returns the number of rows written.
+     *
+     * Runs on the async request thread of a StreamingResponseBody; the read-only
+     * transaction spans the whole export because the cursor lives inside it.
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, LocalDateTime from, LocalDateTime to, boolean gzip,
+                       OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : new BufferedOutputStream(out, BUFFER_BYTES);
+        long rows;
+        try (Stream<TransactionDTO> transactions = transactionRepository.streamTransactionDTOs(
+                from != null ? from : EARLIEST, to != null ? to : LATEST)) {
+            rows = format == ExportFormat.CSV
+                    ? writeCsv(transactions.iterator(), target)
+                    : writeNdjson(transactions.iterator(), target);
+        }
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        target.flush();
+        log.info("Exported {} transactions as {} (from={}, to={}, gzip={})", rows, format, from, to, gzip);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<TransactionDTO> transactions, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TransactionDTO.class);
+        long rows = 0;
+        while (transactions.hasNext()) {
+            out.write(writer.writeValueAsBytes(transactions.next()));
+            out.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<TransactionDTO> transactions, OutputStream out) throws IOException {
+        // Not closed: closing would close the response stream before the caller finishes it
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long rows = 0;
+        while (transactions.hasNext()) {
+            TransactionDTO t = transactions.next();
+            writer.write(String.valueOf(t.getId()));
+            writer.write(',');
+            writer.write(value(t.getTransactionDate()));
+            writer.write(',');
+            writer.write(value(t.getTransactionType()));
+            writer.write(',');
+            writer.write(value(t.getStatus()));
+            writer.write(',');
+            writer.write(value(t.getProductId()));
+            writer.write(',');
+            writer.write(text(t.getProductSku()));
+            writer.write(',');
+            writer.write(text(t.getProductName()));
+            writer.write(',');
+            writer.write(value(t.getQuantity()));
+            writer.write(',');
+            writer.write(t.getUnitPrice() != null ? t.getUnitPrice().toPlainString() : "");
+            writer.write(',');
+            writer.write(t.getTotalPrice() != null ? t.getTotalPrice().toPlainString() : "");
+            writer.write(',');
+            writer.write(value(t.getUserId()));
+            writer.write(',');
+            writer.write(text(t.getUsername()));
+            writer.write(',');
+            writer.write(text(t.getNotes()));
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static String value(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    /**
+     * Free text as a CSV field: quoted when needed (RFC 4180), and prefixed with an
+     * apostrophe when it would otherwise start a spreadsheet formula.
+     */
+    private static String text(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -5,10 +5,10 @@ import com.ims.stockmanagement.dtos.UserDTO;
 import com.ims.stockmanagement.dtos.UserProfileUpdateRequest;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
 import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.mappers.UserMapper;
 import com.ims.stockmanagement.models.User;
 import com.ims.stockmanagement.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -26,7 +26,7 @@ public class UserService implements UserDetailsService {
     private static final String EMAIL_IN_USE_MESSAGE = "Email is already in use.";
 
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -64,7 +64,7 @@ public class UserService implements UserDetailsService {
         return Response.builder()
                 .statusCode(200)
                 .message("User profile updated successfully")
-                .user(modelMapper.map(updatedUser, UserDTO.class))
+                .user(userMapper.toDTO(updatedUser))
                 .timestamp(LocalDateTime.now())
                 .build();
     }
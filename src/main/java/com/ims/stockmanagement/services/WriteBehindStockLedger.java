@@ -0,0 +1,857 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.Response;
+import com.ims.stockmanagement.dtos.TransactionDTO;
+import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.TransactionStatus;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.exceptions.InsufficientStockException;
+import com.ims.stockmanagement.exceptions.NotFoundException;
+import com.ims.stockmanagement.exceptions.ProductHasTransactionHistoryException;
+import com.ims.stockmanagement.models.StockLedgerDeadLetter;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.StockLedgerDeadLetterRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind stock ledger for POS burst traffic (stock.write-behind.enabled).
+ *
+ * Products are hashed onto partitions, each with a single writer thread that owns the
+ * in-memory stock counters of its products, so a transaction is checked and applied
+ * without any database lock. The writer takes its inbox in groups, appends a group to
+ * the partition's journal with one fsync and only then acknowledges it (202 Accepted).
+ * A flusher thread moves acknowledged entries to the database every few milliseconds:
+ * one transaction per round, batched StockTransaction inserts and one relative stock
+ * UPDATE per product. On start-up every journal entry not yet in the database is
+ * replayed first, so an acknowledged transaction survives a crash.
+ *
+ * An entry the database keeps rejecting (its user or product was deleted before the
+ * flush) is moved to stock_ledger_dead_letters with an error log, so it cannot hold up
+ * the entries behind it or the next start-up. Deleting a user or product that still
+ * has unflushed entries is refused (retireUser, retireProduct).
+ *
+ * While enabled, this ledger must be the only writer of products.stock_quantity and
+ * the application must run on a single node: batch transactions, transaction deletes
+ * and stock sharding changes are rejected. Sharded products are passed through to
+ * StockTransactionService. Product reads lag the counters by about one flush interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WriteBehindStockLedger {
+
+    /** Journal sequences are (sequence * MAX_PARTITIONS + partition), unique across partitions. */
+    static final int MAX_PARTITIONS = 1024;
+    private static final int MAX_GROUP_SIZE = 1024;
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+    static final String DEAD_LETTERS_METRIC = "stock.ledger.dead.letters";
+    private static final String USER_HAS_PENDING_TRANSACTIONS_MESSAGE =
+            "User has stock transactions that are still being written. Please retry in a moment.";
+
+    private final StockTransactionRepository transactionRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final StockTransactionService stockTransactionService;
+    private final PlatformTransactionManager transactionManager;
+    private final StockLedgerDeadLetterRepository deadLetterRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${stock.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stock.write-behind.journal-dir:./data/stock-ledger}")
+    private String journalDirectory = "./data/stock-ledger";
+
+    @Value("${stock.write-behind.partitions:8}")
+    private int partitionCount = 8;
+
+    @Value("${stock.write-behind.flush-interval-ms:5}")
+    private long flushIntervalMs = 5;
+
+    @Value("${stock.write-behind.max-flush-size:2000}")
+    private int maxFlushSize = 2000;
+
+    @Value("${stock.write-behind.max-unflushed:100000}")
+    private int maxUnflushed = 100000;
+
+    @Value("${stock.write-behind.product-cache-ttl-ms:1000}")
+    private long productCacheTtlMs = 1000;
+
+    /** Rounds in a row the database may reject an entry before it is dead-lettered. */
+    @Value("${stock.write-behind.max-entry-attempts:3}")
+    private int maxEntryAttempts = 3;
+
+    private final AtomicLong unflushedCount = new AtomicLong();
+    private final ConcurrentHashMap<Long, Integer> unflushedByProduct = new ConcurrentHashMap<>();
+    /** Per user: submissions in flight plus acknowledged entries not yet flushed. */
+    private final ConcurrentHashMap<Long, Integer> pendingByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> retiredUsers = new ConcurrentHashMap<>();
+    private final List<StockLedgerEntry> flushBatch = new ArrayList<>();
+    private final Map<Long, Integer> entryFailures = new HashMap<>();
+
+    private Partition[] partitions;
+    private ScheduledExecutorService flusher;
+    private TransactionTemplate transactionTemplate;
+    private Counter deadLetters;
+    private volatile boolean accepting;
+    private boolean flushBatchFailed;
+    private int nextDrainPartition;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (partitionCount < 1 || partitionCount > MAX_PARTITIONS) {
+            throw new IllegalStateException("stock.write-behind.partitions must be between 1 and " + MAX_PARTITIONS);
+        }
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        deadLetters = Counter.builder(DEAD_LETTERS_METRIC)
+                .description("Write-behind ledger entries moved to stock_ledger_dead_letters")
+                .register(meterRegistry);
+        Path directory = Path.of(journalDirectory);
+        long firstSequence = replay(directory);
+
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, new StockLedgerJournal(directory, i, SEGMENT_BYTES), firstSequence);
+            partitions[i].thread.start();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Stock ledger flush round failed", e);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        accepting = true;
+        log.info("Write-behind stock ledger started: {} partitions, journal in {}", partitionCount, directory.toAbsolutePath());
+    }
+
+    /**
+     * Stops taking transactions, lets the writers finish their inboxes and flushes what
+     * was acknowledged. Anything that cannot be flushed stays in the journal and is
+     * replayed on the next start.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (partitions == null) {
+            return;
+        }
+        accepting = false;
+        for (Partition partition : partitions) {
+            partition.running = false;
+        }
+        for (Partition partition : partitions) {
+            partition.thread.join();
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+
+        if (!awaitFlushed(Duration.ofSeconds(30))) {
+            log.warn("{} acknowledged stock transactions were not flushed; they will be replayed from the journal",
+                    unflushedCount.get());
+        }
+        partitions = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Guards the stock-changing operations that bypass the in-memory counters.
+     */
+    public void requireDisabled(String operation) {
+        if (enabled) {
+            throw new IllegalStateException("Not available while the write-behind stock ledger is enabled: " + operation);
+        }
+    }
+
+    /**
+     * Records a PURCHASE, SALE or ADJUSTMENT. Returns once the transaction is in the
+     * fsync'd journal; the StockTransaction row follows with the next flush, which is
+     * why the returned transaction has no id yet.
+     */
+    public Response submit(TransactionRequest request) {
+        if (!accepting) {
+            throw new IllegalStateException("Write-behind stock ledger is not running");
+        }
+        if (request.getTransactionType() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        // Transaction actor is always the authenticated user, never client input.
+        User actor = requireAuthenticatedUser();
+        if (unflushedCount.get() >= maxUnflushed) {
+            // The database is behind; push back instead of growing the backlog without bound.
+            throw new PessimisticLockingFailureException("Write-behind stock ledger backlog is full");
+        }
+
+        // Counted before the retirement is checked, retireUser marks before it counts:
+        // a concurrent deletion sees this submission or this submission sees the deletion.
+        Long userId = actor.getId();
+        pendingByUser.merge(userId, 1, Integer::sum);
+        if (isRetired(userId)) {
+            releaseUser(userId);
+            throw new NotFoundException("User not found with id: " + userId);
+        }
+
+        Submission submission = new Submission(request, actor, LocalDateTime.now());
+        Partition partition = partitionOf(request.getProductId());
+        TransactionDTO transaction;
+        try {
+            partition.inbox.add(submission);
+            if (!accepting) {
+                partition.abandonIfStopped(submission);
+            }
+            transaction = await(submission.result);
+        } catch (RuntimeException e) {
+            releaseUser(userId);
+            throw e;
+        }
+        if (transaction == null) {
+            // Sharded product: its buckets already spread the contention, take the regular path.
+            releaseUser(userId);
+            return stockTransactionService.createTransaction(request);
+        }
+
+        return Response.builder()
+                .statusCode(202)
+                .message("Transaction accepted")
+                .transaction(transaction)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Called inside the product delete transaction, after its history check: refuses
+     * when the product still has transactions on their way to the database, and
+     * otherwise stops accepting transactions for it.
+     */
+    public void retireProduct(Long productId) {
+        if (!accepting) {
+            return;
+        }
+        Retirement retirement = new Retirement(productId);
+        Partition partition = partitionOf(productId);
+        partition.inbox.add(retirement);
+        if (!accepting) {
+            partition.abandonIfStopped(retirement);
+        }
+        await(retirement.result);
+    }
+
+    /**
+     * Called before a user is deleted: refuses while the user still has transactions on
+     * their way to the database, and otherwise stops accepting transactions from them
+     * for productCacheTtlMs, the same window a product retirement gets. By then the
+     * deletion has committed and SecurityEpochRegistry rejects the user's tokens.
+     */
+    public void retireUser(Long userId) {
+        if (!accepting) {
+            return;
+        }
+        retiredUsers.put(userId, System.nanoTime());
+        if (pendingByUser.containsKey(userId)) {
+            retiredUsers.remove(userId);
+            throw new IllegalStateException(USER_HAS_PENDING_TRANSACTIONS_MESSAGE);
+        }
+    }
+
+    /**
+     * Flushes until every acknowledged entry is in the database or the timeout passes.
+     */
+    boolean awaitFlushed(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (unflushedCount.get() > 0) {
+            flush();
+            if (unflushedCount.get() > 0) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One group commit: up to maxFlushSize acknowledged entries in one database
+     * transaction. A failed batch is then written one entry per transaction until every
+     * entry is in the database or dead-lettered; the journal is only released behind
+     * the whole batch.
+     */
+    synchronized void flush() {
+        if (flushBatch.isEmpty()) {
+            drainAcknowledged();
+            flushBatchFailed = false;
+        }
+        if (flushBatch.isEmpty()) {
+            return;
+        }
+
+        if (!flushBatchFailed) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(flushBatch));
+            } catch (RuntimeException e) {
+                log.warn("Flushing {} stock ledger entries failed; writing them one at a time",
+                        flushBatch.size(), e);
+                flushBatchFailed = true;
+            }
+        }
+        if (flushBatchFailed && !flushOneByOne()) {
+            return;
+        }
+
+        for (StockLedgerEntry entry : flushBatch) {
+            Partition partition = partitions[(int) (entry.getJournalSequence() % MAX_PARTITIONS)];
+            partition.flushedSequence = Math.max(partition.flushedSequence, entry.getJournalSequence());
+            unflushedByProduct.computeIfPresent(entry.getProductId(), (id, count) -> count == 1 ? null : count - 1);
+            releaseUser(entry.getUserId());
+        }
+        unflushedCount.addAndGet(-flushBatch.size());
+        flushBatch.clear();
+        flushBatchFailed = false;
+        entryFailures.clear();
+    }
+
+    /**
+     * Writes the entries of a failed batch that are not in the database yet, one per
+     * transaction. An entry the database rejects in maxEntryAttempts rounds is
+     * dead-lettered; any other failure ends the round, since then the database itself
+     * is most likely unavailable. Returns true when no entry of the batch is left.
+     */
+    private boolean flushOneByOne() {
+        List<StockLedgerEntry> unwritten = transactionTemplate.execute(status -> withoutPersisted(flushBatch));
+        boolean settled = true;
+        for (StockLedgerEntry entry : unwritten) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(entry)));
+            } catch (RuntimeException e) {
+                if (!isRejection(e)) {
+                    return false;
+                }
+                if (entryFailures.merge(entry.getJournalSequence(), 1, Integer::sum) < maxEntryAttempts) {
+                    settled = false;
+                } else {
+                    deadLetter(entry, e);
+                }
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Writes every journaled entry that is not in the database yet and clears the
+     * journal. Returns the first free sequence number.
+     */
+    private long replay(Path directory) throws IOException {
+        List<StockLedgerEntry> journaled = StockLedgerJournal.readAll(directory);
+        // Dead-lettered positions count as used too, or a new entry could reuse one and be skipped.
+        long highest = Math.max(transactionRepository.findMaxJournalSequence().orElse(0L),
+                deadLetterRepository.findMaxJournalSequence().orElse(0L));
+
+        int replayed = 0;
+        for (int from = 0; from < journaled.size(); from += maxFlushSize) {
+            List<StockLedgerEntry> chunk = journaled.subList(from, Math.min(journaled.size(), from + maxFlushSize));
+            try {
+                replayed += transactionTemplate.execute(status -> persist(withoutPersisted(chunk)));
+            } catch (RuntimeException e) {
+                log.warn("Replaying {} journaled stock transactions failed; replaying them one at a time", chunk.size(), e);
+                replayed += replayOneByOne(chunk);
+            }
+        }
+        for (StockLedgerEntry entry : journaled) {
+            highest = Math.max(highest, entry.getJournalSequence());
+        }
+
+        StockLedgerJournal.deleteAll(directory);
+        if (!journaled.isEmpty()) {
+            log.info("Replayed {} of {} journaled stock transactions", replayed, journaled.size());
+        }
+        return highest / MAX_PARTITIONS + 1;
+    }
+
+    /**
+     * Start-up counterpart of flushOneByOne: an entry the database rejects is
+     * dead-lettered at once, any other failure stops the start-up and keeps the journal.
+     */
+    private int replayOneByOne(List<StockLedgerEntry> entries) {
+        int replayed = 0;
+        for (StockLedgerEntry entry : transactionTemplate.execute(status -> withoutPersisted(entries))) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(entry)));
+                replayed++;
+            } catch (RuntimeException e) {
+                if (!isRejection(e)) {
+                    throw e;
+                }
+                deadLetter(entry, e);
+            }
+        }
+        return replayed;
+    }
+
+    private void deadLetter(StockLedgerEntry entry, RuntimeException cause) {
+        Throwable rootCause = NestedExceptionUtils.getMostSpecificCause(cause);
+        String error = rootCause.getClass().getSimpleName() + ": " + rootCause.getMessage();
+
+        StockLedgerDeadLetter deadLetter = new StockLedgerDeadLetter();
+        deadLetter.setJournalSequence(entry.getJournalSequence());
+        deadLetter.setProductId(entry.getProductId());
+        deadLetter.setUserId(entry.getUserId());
+        deadLetter.setTransactionType(entry.getTransactionType());
+        deadLetter.setQuantity(entry.getQuantity());
+        deadLetter.setUnitPrice(entry.getUnitPrice());
+        deadLetter.setNotes(entry.getNotes());
+        deadLetter.setTransactionDate(entry.getTransactionDate());
+        deadLetter.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        deadLetter.setDeadLetteredAt(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> deadLetterRepository.save(deadLetter));
+
+        deadLetters.increment();
+        log.error("Stock ledger entry {} ({} of {} x product {} by user {}) was rejected by the database " +
+                        "and moved to stock_ledger_dead_letters; its stock change must be reconciled by hand",
+                entry.getJournalSequence(), entry.getTransactionType(), entry.getQuantity(),
+                entry.getProductId(), entry.getUserId(), cause);
+    }
+
+    /** The database refused this entry itself, as opposed to being unavailable. */
+    private static boolean isRejection(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof NotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int persist(List<StockLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        List<StockTransaction> rows = new ArrayList<>(entries.size());
+        // Ascending product id: the same lock order as the batch endpoint's lock pass
+        Map<Long, Integer> stockDeltas = new TreeMap<>();
+        for (StockLedgerEntry entry : entries) {
+            rows.add(toTransaction(entry));
+            stockDeltas.merge(entry.getProductId(), entry.stockDelta(), Integer::sum);
+        }
+        transactionRepository.saveAll(rows);
+
+        LocalDateTime now = LocalDateTime.now();
+        stockDeltas.forEach((productId, delta) -> {
+            if (delta != 0 && productRepository.adjustStockBy(productId, delta, now) == 0) {
+                throw new NotFoundException("Product not found with id: " + productId);
+            }
+        });
+        return rows.size();
+    }
+
+    /** Leaves out the entries already in stock_transactions or stock_ledger_dead_letters. */
+    private List<StockLedgerEntry> withoutPersisted(List<StockLedgerEntry> entries) {
+        List<Long> sequences = entries.stream().map(StockLedgerEntry::getJournalSequence).toList();
+        Set<Long> persisted = new HashSet<>(transactionRepository.findExistingJournalSequences(sequences));
+        persisted.addAll(deadLetterRepository.findExistingJournalSequences(sequences));
+        if (persisted.isEmpty()) {
+            return entries;
+        }
+        return entries.stream()
+                .filter(entry -> !persisted.contains(entry.getJournalSequence()))
+                .toList();
+    }
+
+    private void drainAcknowledged() {
+        for (int i = 0; i < partitions.length && flushBatch.size() < maxFlushSize; i++) {
+            ConcurrentLinkedQueue<StockLedgerEntry> acknowledged =
+                    partitions[(nextDrainPartition + i) % partitions.length].acknowledged;
+            StockLedgerEntry entry;
+            while (flushBatch.size() < maxFlushSize && (entry = acknowledged.poll()) != null) {
+                flushBatch.add(entry);
+            }
+        }
+        // Rotate the starting partition so a busy one cannot starve the others
+        nextDrainPartition = (nextDrainPartition + 1) % partitions.length;
+    }
+
+    private StockTransaction toTransaction(StockLedgerEntry entry) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setProduct(productRepository.getReferenceById(entry.getProductId()));
+        transaction.setUser(userRepository.getReferenceById(entry.getUserId()));
+        transaction.setTransactionType(entry.getTransactionType());
+        transaction.setQuantity(entry.getQuantity());
+        transaction.setUnitPrice(entry.getUnitPrice());
+        transaction.setTotalPrice(entry.totalPrice());
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setNotes(entry.getNotes());
+        transaction.setTransactionDate(entry.getTransactionDate());
+        transaction.setJournalSequence(entry.getJournalSequence());
+        return transaction;
+    }
+
+    private boolean isRetired(Long userId) {
+        Long retiredAt = retiredUsers.get(userId);
+        if (retiredAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - retiredAt < TimeUnit.MILLISECONDS.toNanos(productCacheTtlMs)) {
+            return true;
+        }
+        retiredUsers.remove(userId, retiredAt);
+        return false;
+    }
+
+    private void releaseUser(Long userId) {
+        pendingByUser.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    private Partition partitionOf(Long productId) {
+        return partitions[Math.floorMod(Long.hashCode(productId), partitions.length)];
+    }
+
+    /**
+     * The principal is not a loaded User row: it is a detached User that
+     * AuthenticatedUser.toPrincipal() builds from the token claims, with only id,
+     * username, role and enabled set. The ledger relies on the id and username alone,
+     * so it is used as is instead of a lookup on the hot path; any other field of it
+     * (email, fullName, ...) is null.
+     */
+    private User requireAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            throw new SecurityException("No authenticated user found. Please login first.");
+        }
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return user;
+        }
+
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new NotFoundException("User not found with username: " + username));
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Single writer of one partition: owns the counters of its products and its journal.
+     */
+    private final class Partition implements Runnable {
+
+        private final int index;
+        private final StockLedgerJournal journal;
+        private final BlockingQueue<Command> inbox = new LinkedBlockingQueue<>();
+        private final ConcurrentLinkedQueue<StockLedgerEntry> acknowledged = new ConcurrentLinkedQueue<>();
+        private final Map<Long, ProductState> products = new HashMap<>();
+        private final Thread thread;
+        private long nextSequence;
+        private volatile long flushedSequence = -1;
+        private volatile boolean running = true;
+
+        private Partition(int index, StockLedgerJournal journal, long firstSequence) {
+            this.index = index;
+            this.journal = journal;
+            this.nextSequence = firstSequence;
+            this.thread = new Thread(this, "stock-ledger-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Command> group = new ArrayList<>(MAX_GROUP_SIZE);
+            while (running || !inbox.isEmpty()) {
+                try {
+                    Command first = inbox.poll(50, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        group.add(first);
+                        inbox.drainTo(group, MAX_GROUP_SIZE - 1);
+                        process(group);
+                        group.clear();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("Stock ledger partition {} failed on a group", index, e);
+                    group.forEach(command -> command.result.completeExceptionally(e));
+                    group.clear();
+                }
+                journal.release(flushedSequence);
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Could not close stock ledger journal of partition {}", index, e);
+            }
+        }
+
+        /**
+         * Called by a request thread that enqueued while the ledger was stopping: once
+         * the writer has exited, anything it left in the inbox is failed.
+         */
+        private void abandonIfStopped(Command command) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (inbox.remove(command)) {
+                command.result.completeExceptionally(new IllegalStateException("Write-behind stock ledger is not running"));
+            }
+        }
+
+        private void process(List<Command> group) {
+            List<Submission> pending = new ArrayList<>(group.size());
+            List<StockLedgerEntry> entries = new ArrayList<>(group.size());
+            for (Command command : group) {
+                if (command instanceof Retirement retirement) {
+                    // Everything before the retirement must be journaled before it is judged.
+                    commit(pending, entries);
+                    retire(retirement);
+                    continue;
+                }
+
+                Submission submission = (Submission) command;
+                try {
+                    StockLedgerEntry entry = apply(submission);
+                    if (entry == null) {
+                        submission.result.complete(null);
+                    } else {
+                        pending.add(submission);
+                        entries.add(entry);
+                    }
+                } catch (RuntimeException e) {
+                    submission.result.completeExceptionally(e);
+                }
+            }
+            commit(pending, entries);
+        }
+
+        /**
+         * Checks the transaction against the counter and applies it in memory. Returns
+         * null for a sharded product, which is passed through.
+         */
+        private StockLedgerEntry apply(Submission submission) {
+            TransactionRequest request = submission.request;
+            ProductState product = productState(request.getProductId());
+            if (product.sharded) {
+                return null;
+            }
+            if (request.getTransactionType() == TransactionType.SALE && product.stock < request.getQuantity()) {
+                throw new InsufficientStockException("Insufficient stock for product: " + product.name +
+                        ". Available: " + product.stock +
+                        ", Requested: " + request.getQuantity());
+            }
+
+            StockLedgerEntry entry = new StockLedgerEntry(
+                    nextSequence++ * MAX_PARTITIONS + index,
+                    request.getProductId(),
+                    submission.actor.getId(),
+                    request.getTransactionType(),
+                    request.getQuantity(),
+                    request.getUnitPrice() != null ? request.getUnitPrice() : product.price,
+                    request.getNotes(),
+                    submission.requestedAt);
+            product.stock += entry.stockDelta();
+            return entry;
+        }
+
+        /**
+         * The group commit: one journal write and fsync, then every acknowledgement.
+         * If the journal write fails the counters are put back and nothing is acknowledged.
+         */
+        private void commit(List<Submission> pending, List<StockLedgerEntry> entries) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            try {
+                journal.append(entries);
+            } catch (IOException e) {
+                for (int i = entries.size() - 1; i >= 0; i--) {
+                    ProductState product = products.get(entries.get(i).getProductId());
+                    if (product != null) {
+                        product.stock -= entries.get(i).stockDelta();
+                    }
+                }
+                log.error("Stock ledger journal write failed on partition {}", index, e);
+                UncheckedIOException failure = new UncheckedIOException("Stock ledger journal write failed", e);
+                pending.forEach(submission -> submission.result.completeExceptionally(failure));
+                pending.clear();
+                entries.clear();
+                return;
+            }
+
+            for (int i = 0; i < entries.size(); i++) {
+                StockLedgerEntry entry = entries.get(i);
+                unflushedByProduct.merge(entry.getProductId(), 1, Integer::sum);
+                unflushedCount.incrementAndGet();
+                acknowledged.add(entry);
+                pending.get(i).result.complete(toDTO(entry, products.get(entry.getProductId()), pending.get(i).actor));
+            }
+            pending.clear();
+            entries.clear();
+        }
+
+        private void retire(Retirement retirement) {
+            if (unflushedByProduct.containsKey(retirement.productId)) {
+                retirement.result.completeExceptionally(new ProductHasTransactionHistoryException(
+                        ProductService.PRODUCT_HAS_TRANSACTION_HISTORY_MESSAGE));
+                return;
+            }
+            ProductState product = products.computeIfAbsent(retirement.productId, id -> new ProductState());
+            product.retired = true;
+            product.loadedAt = System.nanoTime();
+            retirement.result.complete(null);
+        }
+
+        /**
+         * Cached product. The stock counter is loaded once and from then on only changed
+         * here; name, SKU, price and sharding are re-read after productCacheTtlMs.
+         */
+        private ProductState productState(Long productId) {
+            ProductState product = products.get(productId);
+            long now = System.nanoTime();
+            if (product != null && now - product.loadedAt < TimeUnit.MILLISECONDS.toNanos(productCacheTtlMs)) {
+                if (product.retired) {
+                    throw new NotFoundException("Product not found with id: " + productId);
+                }
+                return product;
+            }
+
+            List<Object[]> rows = productRepository.findLedgerSnapshotById(productId);
+            if (rows.isEmpty()) {
+                products.remove(productId);
+                throw new NotFoundException("Product not found with id: " + productId);
+            }
+            Object[] row = rows.get(0);
+            if (product == null || product.retired) {
+                product = new ProductState();
+                product.stock = ((Number) row[3]).intValue();
+                products.put(productId, product);
+            }
+            product.name = (String) row[0];
+            product.sku = (String) row[1];
+            product.price = (BigDecimal) row[2];
+            product.sharded = ((Number) row[4]).intValue() > 0;
+            product.loadedAt = now;
+            return product;
+        }
+
+        private TransactionDTO toDTO(StockLedgerEntry entry, ProductState product, User actor) {
+            TransactionDTO dto = new TransactionDTO();
+            dto.setProductId(entry.getProductId());
+            dto.setProductName(product.name);
+            dto.setProductSku(product.sku);
+            dto.setUserId(actor.getId());
+            dto.setUsername(actor.getUsername());
+            dto.setTransactionType(entry.getTransactionType());
+            dto.setQuantity(entry.getQuantity());
+            dto.setUnitPrice(entry.getUnitPrice());
+            dto.setTotalPrice(entry.totalPrice());
+            dto.setStatus(TransactionStatus.COMPLETED);
+            dto.setNotes(entry.getNotes());
+            dto.setTransactionDate(entry.getTransactionDate());
+            return dto;
+        }
+    }
+
+    private static final class ProductState {
+        private int stock;
+        private String name;
+        private String sku;
+        private BigDecimal price;
+        private boolean sharded;
+        private boolean retired;
+        private long loadedAt;
+    }
+
+    private abstract static class Command {
+        final CompletableFuture<TransactionDTO> result = new CompletableFuture<>();
+    }
+
+    private static final class Submission extends Command {
+        private final TransactionRequest request;
+        private final User actor;
+        private final LocalDateTime requestedAt;
+
+        private Submission(TransactionRequest request, User actor, LocalDateTime requestedAt) {
+            this.request = request;
+            this.actor = actor;
+            this.requestedAt = requestedAt;
+        }
+    }
+
+    private static final class Retirement extends Command {
+        private final Long productId;
+
+        private Retirement(Long productId) {
+            this.productId = productId;
+        }
+    }
+}
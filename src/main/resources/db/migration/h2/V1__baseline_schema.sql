@@ -0,0 +1,116 @@
+-- Baseline for the embedded H2 database of tests and benchmarks: the same tables,
+-- constraints and index names as db/migration/mysql/V1__baseline_schema.sql, in H2 types.
+-- Keep the two in step; a migration added to one directory needs its twin in the other.
+
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE suppliers (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255)  NOT NULL,
+    email       VARCHAR(255),
+    phone       VARCHAR(255),
+    address     VARCHAR(1000),
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6)  NOT NULL,
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_suppliers_email UNIQUE (email)
+);
+
+CREATE TABLE users (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username       VARCHAR(255)          NOT NULL,
+    email          VARCHAR(255)          NOT NULL,
+    password       VARCHAR(255)          NOT NULL,
+    full_name      VARCHAR(255)          NOT NULL,
+    role           ENUM ('ADMIN','USER') NOT NULL,
+    enabled        BOOLEAN               NOT NULL,
+    created_at     TIMESTAMP(6)          NOT NULL,
+    updated_at     TIMESTAMP(6),
+    security_epoch BIGINT                NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE id_generators (
+    entity_name VARCHAR(255) NOT NULL,
+    next_val    BIGINT,
+    PRIMARY KEY (entity_name)
+);
+
+CREATE TABLE products (
+    id                  BIGINT        NOT NULL,
+    name                VARCHAR(255)  NOT NULL,
+    sku                 VARCHAR(255)  NOT NULL,
+    description         VARCHAR(1000),
+    price               NUMERIC(10,2) NOT NULL,
+    stock_quantity      INTEGER       NOT NULL,
+    reorder_level       INTEGER       NOT NULL,
+    stock_bucket_count  INTEGER       NOT NULL DEFAULT 0,
+    low_stock_candidate BOOLEAN       NOT NULL DEFAULT FALSE,
+    category_id         BIGINT        NOT NULL,
+    supplier_id         BIGINT,
+    created_by_user_id  BIGINT,
+    image_url           VARCHAR(255),
+    created_at          TIMESTAMP(6)  NOT NULL,
+    updated_at          TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id),
+    CONSTRAINT fk_products_supplier FOREIGN KEY (supplier_id) REFERENCES suppliers (id),
+    CONSTRAINT fk_products_created_by FOREIGN KEY (created_by_user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_products_created_at_id ON products (created_at, id);
+CREATE INDEX idx_products_low_stock_candidate ON products (low_stock_candidate);
+
+CREATE TABLE product_stock_buckets (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id   BIGINT  NOT NULL,
+    bucket_index INTEGER NOT NULL,
+    quantity     INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_stock_buckets_product_bucket UNIQUE (product_id, bucket_index),
+    CONSTRAINT fk_product_stock_buckets_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE stock_transactions (
+    id               BIGINT                                   NOT NULL,
+    product_id       BIGINT                                   NOT NULL,
+    user_id          BIGINT                                   NOT NULL,
+    transaction_type ENUM ('PURCHASE','SALE','ADJUSTMENT')    NOT NULL,
+    quantity         INTEGER                                  NOT NULL,
+    unit_price       NUMERIC(10,2)                            NOT NULL,
+    total_price      NUMERIC(12,2)                            NOT NULL,
+    status           ENUM ('PENDING','COMPLETED','CANCELLED') NOT NULL,
+    notes            VARCHAR(1000),
+    transaction_date TIMESTAMP(6)                             NOT NULL,
+    journal_sequence BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_transactions_journal_sequence UNIQUE (journal_sequence),
+    CONSTRAINT fk_stock_transactions_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_stock_transactions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_stock_transactions_date_id ON stock_transactions (transaction_date, id);
+
+CREATE TABLE refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token       VARCHAR(255)                NOT NULL,
+    expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    user_id     BIGINT,
+    revoked     BOOLEAN                     NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token UNIQUE (token),
+    CONSTRAINT uk_refresh_tokens_user UNIQUE (user_id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
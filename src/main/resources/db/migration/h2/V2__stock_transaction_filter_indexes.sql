@@ -0,0 +1,6 @@
+-- H2 twin of db/migration/mysql/V2__stock_transaction_filter_indexes.sql. H2 has no
+-- online DDL to ask for; the tables it builds these on are small.
+
+CREATE INDEX idx_stock_transactions_product_date_id ON stock_transactions (product_id, transaction_date, id);
+CREATE INDEX idx_stock_transactions_user_date_id ON stock_transactions (user_id, transaction_date, id);
+CREATE INDEX idx_stock_transactions_type_date_id ON stock_transactions (transaction_type, transaction_date, id);
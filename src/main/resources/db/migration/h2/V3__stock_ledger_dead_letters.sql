@@ -0,0 +1,17 @@
+-- H2 twin of db/migration/mysql/V3__stock_ledger_dead_letters.sql.
+
+CREATE TABLE stock_ledger_dead_letters (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    journal_sequence  BIGINT                                NOT NULL,
+    product_id        BIGINT                                NOT NULL,
+    user_id           BIGINT                                NOT NULL,
+    transaction_type  ENUM ('PURCHASE','SALE','ADJUSTMENT') NOT NULL,
+    quantity          INTEGER                               NOT NULL,
+    unit_price        NUMERIC(10,2)                         NOT NULL,
+    notes             VARCHAR(1000),
+    transaction_date  TIMESTAMP(6)                          NOT NULL,
+    error             VARCHAR(1000),
+    dead_lettered_at  TIMESTAMP(6)                          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_ledger_dead_letters_journal_sequence UNIQUE (journal_sequence)
+);
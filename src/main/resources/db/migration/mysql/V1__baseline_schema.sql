@@ -0,0 +1,119 @@
+-- Baseline: the schema as Hibernate created it from the entities, plus the manual
+-- migrations deployment/mysql/migrations/001-006.
+--
+-- Databases that already have these tables (every installation from before Flyway) are
+-- not touched by this script: spring.flyway.baseline-on-migrate records them at version 1
+-- and only V2 onwards runs. Apply 001-006 by hand first if a database is behind them.
+
+CREATE TABLE categories (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+) ENGINE=InnoDB;
+
+CREATE TABLE suppliers (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255)  NOT NULL,
+    email       VARCHAR(255),
+    phone       VARCHAR(255),
+    address     VARCHAR(1000),
+    description VARCHAR(500),
+    created_at  DATETIME(6)   NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_suppliers_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE users (
+    id             BIGINT                NOT NULL AUTO_INCREMENT,
+    username       VARCHAR(255)          NOT NULL,
+    email          VARCHAR(255)          NOT NULL,
+    password       VARCHAR(255)          NOT NULL,
+    full_name      VARCHAR(255)          NOT NULL,
+    role           ENUM ('ADMIN','USER') NOT NULL,
+    enabled        BIT                   NOT NULL,
+    created_at     DATETIME(6)           NOT NULL,
+    updated_at     DATETIME(6),
+    security_epoch BIGINT                NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+-- Product and StockTransaction ids come from here (pooled @TableGenerator); Hibernate
+-- inserts the row of each table the first time it needs an id.
+CREATE TABLE id_generators (
+    entity_name VARCHAR(255) NOT NULL,
+    next_val    BIGINT,
+    PRIMARY KEY (entity_name)
+) ENGINE=InnoDB;
+
+CREATE TABLE products (
+    id                  BIGINT        NOT NULL,
+    name                VARCHAR(255)  NOT NULL,
+    sku                 VARCHAR(255)  NOT NULL,
+    description         VARCHAR(1000),
+    price               DECIMAL(10,2) NOT NULL,
+    stock_quantity      INT           NOT NULL,
+    reorder_level       INT           NOT NULL,
+    stock_bucket_count  INT           NOT NULL DEFAULT 0,
+    low_stock_candidate BIT           NOT NULL DEFAULT 0,
+    category_id         BIGINT        NOT NULL,
+    supplier_id         BIGINT,
+    created_by_user_id  BIGINT,
+    image_url           VARCHAR(255),
+    created_at          DATETIME(6)   NOT NULL,
+    updated_at          DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id),
+    CONSTRAINT fk_products_supplier FOREIGN KEY (supplier_id) REFERENCES suppliers (id),
+    CONSTRAINT fk_products_created_by FOREIGN KEY (created_by_user_id) REFERENCES users (id),
+    INDEX idx_products_created_at_id (created_at, id),
+    INDEX idx_products_low_stock_candidate (low_stock_candidate)
+) ENGINE=InnoDB;
+
+CREATE TABLE product_stock_buckets (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    product_id   BIGINT NOT NULL,
+    bucket_index INT    NOT NULL,
+    quantity     INT    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_stock_buckets_product_bucket UNIQUE (product_id, bucket_index),
+    CONSTRAINT fk_product_stock_buckets_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE stock_transactions (
+    id               BIGINT                                     NOT NULL,
+    product_id       BIGINT                                     NOT NULL,
+    user_id          BIGINT                                     NOT NULL,
+    transaction_type ENUM ('PURCHASE','SALE','ADJUSTMENT')      NOT NULL,
+    quantity         INT                                        NOT NULL,
+    unit_price       DECIMAL(10,2)                              NOT NULL,
+    total_price      DECIMAL(12,2)                              NOT NULL,
+    status           ENUM ('PENDING','COMPLETED','CANCELLED')   NOT NULL,
+    notes            VARCHAR(1000),
+    transaction_date DATETIME(6)                                NOT NULL,
+    journal_sequence BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_transactions_journal_sequence UNIQUE (journal_sequence),
+    CONSTRAINT fk_stock_transactions_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_stock_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    INDEX idx_stock_transactions_date_id (transaction_date, id)
+) ENGINE=InnoDB;
+
+CREATE TABLE refresh_tokens (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    token       VARCHAR(255) NOT NULL,
+    expiry_date TIMESTAMP(6) NOT NULL,
+    user_id     BIGINT,
+    revoked     BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token UNIQUE (token),
+    CONSTRAINT uk_refresh_tokens_user UNIQUE (user_id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- Product, user and type ledger filters (keyset pages, existsByProductId) read an index
+-- range instead of scanning stock_transactions; see StockTransactionQueryPlanTest.
+--
+-- One ALTER builds the three indexes in a single pass over the table. ALGORITHM=INPLACE,
+-- LOCK=NONE keeps the ledger writable while they build (InnoDB online DDL); MySQL refuses
+-- the statement instead of silently falling back to a locking copy.
+
+ALTER TABLE stock_transactions
+    ADD INDEX idx_stock_transactions_product_date_id (product_id, transaction_date, id),
+    ADD INDEX idx_stock_transactions_user_date_id (user_id, transaction_date, id),
+    ADD INDEX idx_stock_transactions_type_date_id (transaction_type, transaction_date, id),
+    ALGORITHM=INPLACE, LOCK=NONE;
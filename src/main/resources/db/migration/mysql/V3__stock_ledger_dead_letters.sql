@@ -0,0 +1,18 @@
+-- Write-behind ledger entries the database kept rejecting (StockLedgerDeadLetter).
+-- No foreign keys: a deleted user or product is the usual reason for an entry to be here.
+
+CREATE TABLE stock_ledger_dead_letters (
+    id                BIGINT                                NOT NULL AUTO_INCREMENT,
+    journal_sequence  BIGINT                                NOT NULL,
+    product_id        BIGINT                                NOT NULL,
+    user_id           BIGINT                                NOT NULL,
+    transaction_type  ENUM ('PURCHASE','SALE','ADJUSTMENT') NOT NULL,
+    quantity          INT                                   NOT NULL,
+    unit_price        DECIMAL(10,2)                         NOT NULL,
+    notes             VARCHAR(1000),
+    transaction_date  DATETIME(6)                           NOT NULL,
+    error             VARCHAR(1000),
+    dead_lettered_at  DATETIME(6)                           NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_ledger_dead_letters_journal_sequence UNIQUE (journal_sequence)
+) ENGINE=InnoDB;
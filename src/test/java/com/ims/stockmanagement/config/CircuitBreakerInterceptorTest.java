@@ -0,0 +1,116 @@
+package com.ims.stockmanagement.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * CircuitBreakerInterceptor in front of a local stub server: consecutive 5xx answers open
+ * the circuit, an open circuit fails without a request, and a successful trial after the
+ * open period closes it again.
+ */
+class CircuitBreakerInterceptorTest {
+
+    private static final int THRESHOLD = 3;
+    private static final Duration OPEN = Duration.ofMillis(200);
+
+    private HttpServer upstream;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int upstreamStatus = 503;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CircuitBreakerInterceptor breaker;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(upstreamStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/v4/latest/USD";
+
+        breaker = new CircuitBreakerInterceptor("test-api", THRESHOLD, OPEN, meterRegistry);
+        restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(List.of(breaker));
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void consecutiveServerErrorsOpenTheCircuitAndItFailsFast() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+        }
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState());
+        assertEquals(1.0, meterRegistry.get("http.client.circuit.state").tag("name", "test-api").gauge().value());
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url, String.class));
+        assertEquals(THRESHOLD, requests.get(), "an open circuit must not reach the upstream");
+        assertEquals(1.0, meterRegistry.get("http.client.circuit.rejected").counter().count());
+    }
+
+    @Test
+    void successfulTrialAfterTheOpenPeriodClosesTheCircuit() throws Exception {
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+        }
+        Thread.sleep(OPEN.toMillis() + 50);
+        assertEquals(CircuitBreakerInterceptor.State.HALF_OPEN, breaker.getState());
+
+        upstreamStatus = 200;
+        assertEquals("{}", restTemplate.getForObject(url, String.class));
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedTrialOpensTheCircuitAgain() throws Exception {
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+        }
+        Thread.sleep(OPEN.toMillis() + 50);
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState());
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url, String.class));
+        assertEquals(THRESHOLD + 1, requests.get());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+        upstreamStatus = 200;
+        restTemplate.getForObject(url, String.class);
+        upstreamStatus = 503;
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url, String.class));
+
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,228 @@
+package com.ims.stockmanagement.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ims.stockmanagement.enums.TransactionStatus;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import com.ims.stockmanagement.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cursor mode of the product and transaction lists (?after=&limit=): newest first, no
+ * totals, and a row inserted between two requests never shifts or repeats later pages.
+ * The per-product/user/type transaction lists use the same cursor.
+ *
+ * The fixture transactions are dated in the far future so they are the newest rows in
+ * the shared test database regardless of what other tests left behind.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class KeysetPaginationIntegrationTest {
+
+    private static final LocalDateTime FUTURE = LocalDateTime.of(2999, 1, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StockTransactionRepository transactionRepository;
+
+    private User user;
+    private String token;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser();
+        token = jwtService.generateToken(user);
+        category = saveCategory();
+    }
+
+    @Test
+    void transactionCursorWalksNewestFirstAndIgnoresRowsInsertedBetweenPages() throws Exception {
+        Product product = saveProduct();
+        // Two rows share a timestamp: the id breaks the tie.
+        Long oldest = saveTransaction(product, FUTURE.minusMinutes(3));
+        Long tiedLow = saveTransaction(product, FUTURE.minusMinutes(2));
+        Long tiedHigh = saveTransaction(product, FUTURE.minusMinutes(2));
+        Long newest = saveTransaction(product, FUTURE);
+        List<Long> expectedOrder = List.of(newest, Math.max(tiedLow, tiedHigh), Math.min(tiedLow, tiedHigh), oldest);
+
+        JsonNode first = getJson("/api/transactions?limit=2");
+        assertTrue(first.path("totalElements").isMissingNode(), "cursor mode must not count the ledger");
+        assertEquals(2, first.path("size").asInt());
+
+        // A newer row committed while the client is paging belongs before the cursor.
+        saveTransaction(product, FUTURE.plusMinutes(1));
+
+        JsonNode second = getJson("/api/transactions?limit=2&after=" + first.path("nextCursor").asText());
+
+        List<Long> seen = new ArrayList<>();
+        seen.addAll(ids(first.path("transactionList")));
+        seen.addAll(ids(second.path("transactionList")));
+        assertEquals(expectedOrder, seen);
+    }
+
+    @Test
+    void productCursorReturnsTheNewestRowsEachExactlyOnce() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(saveProduct().getId());
+        }
+
+        JsonNode first = getJson("/api/products?limit=2");
+        assertFalse(first.path("nextCursor").isMissingNode());
+        JsonNode second = getJson("/api/products?limit=1&after=" + first.path("nextCursor").asText());
+
+        List<Long> seen = new ArrayList<>(ids(first.path("productList")));
+        seen.addAll(ids(second.path("productList")));
+        assertEquals(3, seen.size());
+        assertTrue(seen.containsAll(created), "the three newest products must come first, each exactly once");
+    }
+
+    @Test
+    void filteredTransactionListsArePagedWithTheSameCursor() throws Exception {
+        Product product = saveProduct();
+        Product otherProduct = saveProduct();
+        Long older = saveTransaction(product, FUTURE.minusMinutes(2));
+        saveTransaction(otherProduct, FUTURE.minusMinutes(1));
+        Long newer = saveTransaction(product, FUTURE);
+
+        JsonNode first = getJson("/api/transactions/product/" + product.getId() + "?limit=1");
+        JsonNode second = getJson("/api/transactions/product/" + product.getId() + "?limit=1&after="
+                + first.path("nextCursor").asText());
+
+        assertEquals(List.of(newer), ids(first.path("transactionList")));
+        assertEquals(List.of(older), ids(second.path("transactionList")));
+        assertTrue(second.path("nextCursor").isMissingNode(), "the last page has no cursor");
+
+        JsonNode byUser = getJson("/api/transactions/user/" + user.getId() + "?limit=2");
+        assertEquals(2, byUser.path("transactionList").size());
+        assertFalse(byUser.path("nextCursor").isMissingNode());
+    }
+
+    @Test
+    void categoryProductsArePagedAndPageSizeIsBounded() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            saveProduct();
+        }
+
+        JsonNode page = getJson("/api/products/category/" + category.getId() + "?page=1&size=2");
+        assertEquals(1, page.path("productList").size());
+        assertEquals(3, page.path("totalElements").asLong());
+        assertEquals(2, page.path("totalPages").asInt());
+
+        mockMvc.perform(get("/api/products/category/" + category.getId() + "?size=1000")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/transactions?after=not-a-cursor")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private List<Long> ids(JsonNode rows) {
+        List<Long> ids = new ArrayList<>();
+        rows.forEach(row -> ids.add(row.path("id").asLong()));
+        return ids;
+    }
+
+    private User saveUser() {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        User saved = new User();
+        saved.setUsername("keyset_" + unique);
+        saved.setEmail("keyset_" + unique + "@example.com");
+        saved.setPassword("not-used-for-jwt-auth");
+        saved.setFullName("Keyset Pagination User");
+        saved.setRole(UserRole.USER);
+        saved.setEnabled(true);
+        return userRepository.save(saved);
+    }
+
+    private Category saveCategory() {
+        Category saved = new Category();
+        saved.setName("keyset-category-" + UUID.randomUUID().toString().substring(0, 8));
+        return categoryRepository.save(saved);
+    }
+
+    private Product saveProduct() {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        Product saved = new Product();
+        saved.setName("Keyset Product " + unique);
+        saved.setSku("KEY-" + unique);
+        saved.setPrice(new BigDecimal("10.00"));
+        saved.setStockQuantity(10);
+        saved.setReorderLevel(1);
+        saved.setCategory(category);
+        return productRepository.save(saved);
+    }
+
+    private Long saveTransaction(Product product, LocalDateTime at) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setProduct(product);
+        transaction.setUser(user);
+        transaction.setTransactionType(TransactionType.PURCHASE);
+        transaction.setQuantity(1);
+        transaction.setUnitPrice(new BigDecimal("10.00"));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionDate(at);
+        return transactionRepository.save(transaction).getId();
+    }
+}
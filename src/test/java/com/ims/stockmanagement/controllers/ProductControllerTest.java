@@ -17,11 +17,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -31,6 +33,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -253,4 +256,58 @@ class ProductControllerTest {
 
         verify(productService, times(1)).deleteProduct(1L);
     }
+
+    @Test
+    void getAllProducts_withCurrencyConvertsTheWholePageInOneCall() throws Exception {
+        ProductDTO laptop = validProductDTO();
+        ProductDTO mouse = validProductDTO();
+        mouse.setPrice(new BigDecimal("40.00"));
+        List<ProductDTO> pageContent = List.of(laptop, mouse);
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(Response.builder()
+                .statusCode(200)
+                .message("Products retrieved successfully")
+                .productList(pageContent)
+                .build());
+        when(externalApiService.convertPrices(pageContent, "TRY", "EUR")).thenAnswer(invocation -> {
+            laptop.setConvertedPrice(new BigDecimal("37.50"));
+            mouse.setConvertedPrice(new BigDecimal("1.00"));
+            return pageContent;
+        });
+
+        mockMvc.perform(get("/api/products").param("currency", "eur"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currency").value("EUR"))
+                .andExpect(jsonPath("$.productList[0].convertedPrice").value(37.50))
+                .andExpect(jsonPath("$.productList[1].convertedPrice").value(1.00));
+
+        verify(externalApiService, times(1)).convertPrices(pageContent, "TRY", "EUR");
+    }
+
+    @Test
+    void getProductPricesInCurrency_returns503WhenRatesAreUnavailable() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(Response.builder()
+                .statusCode(200)
+                .productList(List.of(validProductDTO()))
+                .build());
+        when(externalApiService.convertPrices(any(), eq("TRY"), eq("USD")))
+                .thenThrow(new IllegalStateException("Exchange rate service is unavailable. Please try again later."));
+
+        mockMvc.perform(get("/api/products/prices/USD"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.statusCode").value(503));
+    }
+
+    @Test
+    void getAllProducts_withoutCurrencyDoesNotTouchExchangeRates() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(Response.builder()
+                .statusCode(200)
+                .productList(List.of(validProductDTO()))
+                .build());
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productList[0].convertedPrice").doesNotExist());
+
+        verifyNoInteractions(externalApiService);
+    }
 }
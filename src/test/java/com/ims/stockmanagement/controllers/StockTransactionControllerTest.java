@@ -1,11 +1,15 @@
 package com.ims.stockmanagement.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ims.stockmanagement.dtos.BatchTransactionRequest;
+import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.dtos.TransactionRequest;
 import com.ims.stockmanagement.enums.TransactionType;
 import com.ims.stockmanagement.exceptions.GlobalExceptionHandler;
 import com.ims.stockmanagement.exceptions.InsufficientStockException;
 import com.ims.stockmanagement.services.StockTransactionService;
+import com.ims.stockmanagement.services.TransactionExportService;
+import com.ims.stockmanagement.services.WriteBehindStockLedger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,8 +23,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -40,6 +46,12 @@ class StockTransactionControllerTest {
     @Mock
     private StockTransactionService transactionService;
 
+    @Mock
+    private WriteBehindStockLedger writeBehindStockLedger;
+
+    @Mock
+    private TransactionExportService transactionExportService;
+
     @InjectMocks
     private StockTransactionController transactionController;
 
@@ -61,6 +73,64 @@ class StockTransactionControllerTest {
         return request;
     }
 
+    @Test
+    void partiallyAppliedBatchReturnsServiceStatus() throws Exception {
+        BatchTransactionRequest batch = new BatchTransactionRequest(java.util.List.of(validSaleRequest()), false);
+        when(transactionService.createTransactionBatch(any(BatchTransactionRequest.class)))
+                .thenReturn(Response.builder().statusCode(207).message("Batch processed: 0 created, 1 rejected").build());
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.statusCode").value(207));
+
+        verify(transactionService, times(1)).createTransactionBatch(any(BatchTransactionRequest.class));
+    }
+
+    @Test
+    void emptyBatchIsRejectedBeforeReachingTheService() throws Exception {
+        BatchTransactionRequest batch = new BatchTransactionRequest(java.util.List.of(), false);
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At least one transaction is required"));
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void saleIsRoutedToWriteBehindLedgerWhenEnabled() throws Exception {
+        when(writeBehindStockLedger.isEnabled()).thenReturn(true);
+        when(writeBehindStockLedger.submit(any(TransactionRequest.class)))
+                .thenReturn(Response.builder().statusCode(202).message("Transaction accepted").build());
+
+        mockMvc.perform(post("/api/transactions/sale")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validSaleRequest())))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.statusCode").value(202));
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void batchIsRejectedWhileWriteBehindLedgerIsEnabled() throws Exception {
+        BatchTransactionRequest batch = new BatchTransactionRequest(java.util.List.of(validSaleRequest()), false);
+        doThrow(new IllegalStateException(
+                "Not available while the write-behind stock ledger is enabled: Batch transactions"))
+                .when(writeBehindStockLedger).requireDisabled("Batch transactions");
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isConflict());
+
+        verifyNoInteractions(transactionService);
+    }
+
     @Test
     void insufficientStockReturns422() throws Exception {
         TransactionRequest request = validSaleRequest();
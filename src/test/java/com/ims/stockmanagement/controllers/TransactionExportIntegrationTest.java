@@ -0,0 +1,198 @@
+package com.ims.stockmanagement.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ims.stockmanagement.enums.TransactionStatus;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import com.ims.stockmanagement.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/transactions/export: rows of the requested range, oldest first, as NDJSON or
+ * CSV, optionally gzip-compressed.
+ *
+ * Not @Transactional: the export reads on the async request thread, which only sees
+ * committed rows. The fixture is dated in the far future and removed after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionExportIntegrationTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(3100, 1, 1, 0, 0);
+    private static final String RANGE = "from=3100-01-01T00:00:00&to=3100-02-01T00:00:00";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StockTransactionRepository transactionRepository;
+
+    private User admin;
+    private String token;
+    private Category category;
+    private Product product;
+    private final List<Long> transactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        admin = saveAdmin();
+        token = jwtService.generateToken(admin);
+
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        category = new Category();
+        category.setName("export-category-" + unique);
+        category = categoryRepository.save(category);
+
+        product = new Product();
+        product.setName("Export, \"Quoted\" Product " + unique);
+        product.setSku("EXP-" + unique);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(10);
+        product.setReorderLevel(1);
+        product.setCategory(category);
+        product = productRepository.save(product);
+
+        saveTransaction(FROM.plusDays(2), "=HYPERLINK(\"http://example.com\")");
+        saveTransaction(FROM.plusDays(1), "first");
+        // Outside the range: the end of the range is exclusive
+        saveTransaction(FROM.plusMonths(1), "outside");
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllById(transactionIds);
+        productRepository.deleteById(product.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(admin.getId());
+    }
+
+    @Test
+    void ndjsonExportStreamsOneObjectPerLineOldestFirst() throws Exception {
+        MockHttpServletResponse response = export("/api/transactions/export?" + RANGE);
+
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(transactionIds.get(1), first.path("id").asLong());
+        assertEquals(product.getSku(), first.path("productSku").asText());
+        assertEquals(transactionIds.get(0), objectMapper.readTree(lines[1]).path("id").asLong());
+    }
+
+    @Test
+    void csvExportQuotesTextAndNeutralisesFormulas() throws Exception {
+        MockHttpServletResponse response = export("/api/transactions/export?format=csv&" + RANGE);
+
+        assertEquals("attachment; filename=\"transactions.csv\"", response.getHeader("Content-Disposition"));
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,transactionDate,transactionType,status,productId,productSku,productName,quantity,"
+                + "unitPrice,totalPrice,userId,username,notes", lines[0]);
+        assertEquals(transactionIds.get(1) + "," + FROM.plusDays(1) + ",PURCHASE,COMPLETED," + product.getId() + ","
+                + product.getSku() + ",\"" + product.getName().replace("\"", "\"\"") + "\",1,10.00,10.00,"
+                + admin.getId() + "," + admin.getUsername() + ",first", lines[1]);
+        assertTrue(lines[2].endsWith(",\"'=HYPERLINK(\"\"http://example.com\"\")\""), lines[2]);
+    }
+
+    @Test
+    void gzipExportIsCompressed() throws Exception {
+        MockHttpServletResponse response = export("/api/transactions/export?gzip=true&" + RANGE);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(2, body.split("\n").length);
+        }
+    }
+
+    @Test
+    void emptyRangeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/transactions/export?from=3100-01-02T00:00:00&to=3100-01-01T00:00:00")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletResponse export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private User saveAdmin() {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        User saved = new User();
+        saved.setUsername("export_" + unique);
+        saved.setEmail("export_" + unique + "@example.com");
+        saved.setPassword("not-used-for-jwt-auth");
+        saved.setFullName("Export Admin");
+        saved.setRole(UserRole.ADMIN);
+        saved.setEnabled(true);
+        return userRepository.save(saved);
+    }
+
+    private void saveTransaction(LocalDateTime at, String notes) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setProduct(product);
+        transaction.setUser(admin);
+        transaction.setTransactionType(TransactionType.PURCHASE);
+        transaction.setQuantity(1);
+        transaction.setUnitPrice(new BigDecimal("10.00"));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionDate(at);
+        transaction.setNotes(notes);
+        transactionIds.add(transactionRepository.save(transaction).getId());
+    }
+}
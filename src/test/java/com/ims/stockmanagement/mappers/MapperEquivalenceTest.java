@@ -0,0 +1,211 @@
+package com.ims.stockmanagement.mappers;
+
+import com.ims.stockmanagement.dtos.CategoryDTO;
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.SupplierDTO;
+import com.ims.stockmanagement.dtos.TransactionDTO;
+import com.ims.stockmanagement.dtos.UserDTO;
+import com.ims.stockmanagement.enums.TransactionStatus;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.Supplier;
+import com.ims.stockmanagement.models.User;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The hand-written mappers must produce exactly what the former ModelMapper conversion
+ * produced: a plain new ModelMapper() plus the relation fields the services set by hand.
+ */
+class MapperEquivalenceTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private final SupplierMapper supplierMapper = new SupplierMapper();
+    private final UserMapper userMapper = new UserMapper();
+
+    @Test
+    void productWithAllRelations() {
+        Product product = product(category(), supplier(), user());
+
+        assertEquals(modelMapperProduct(product), productMapper.toDTO(product));
+    }
+
+    @Test
+    void productWithoutRelations() {
+        Product product = product(null, null, null);
+
+        ProductDTO dto = productMapper.toDTO(product);
+
+        assertEquals(modelMapperProduct(product), dto);
+        assertNull(dto.getCategoryId());
+        assertNull(dto.getSupplierName());
+    }
+
+    @Test
+    void transactionWithProductAndUser() {
+        StockTransaction transaction = transaction(product(category(), supplier(), user()), user());
+
+        assertEquals(modelMapperTransaction(transaction), transactionMapper.toDTO(transaction));
+    }
+
+    @Test
+    void transactionWithoutProductAndUser() {
+        StockTransaction transaction = transaction(null, null);
+
+        assertEquals(modelMapperTransaction(transaction), transactionMapper.toDTO(transaction));
+    }
+
+    @Test
+    void category() {
+        Category category = category();
+
+        assertEquals(modelMapper.map(category, CategoryDTO.class), categoryMapper.toDTO(category));
+    }
+
+    @Test
+    void supplier() {
+        Supplier supplier = supplier();
+
+        assertEquals(modelMapper.map(supplier, SupplierDTO.class), supplierMapper.toDTO(supplier));
+    }
+
+    @Test
+    void user() {
+        User user = user();
+
+        assertEquals(modelMapper.map(user, UserDTO.class), userMapper.toDTO(user));
+    }
+
+    @Test
+    void newCategoryAndSupplierTakeEverythingButIdAndCreatedAt() {
+        CategoryDTO categoryDTO = new CategoryDTO(99L, "Peripherals", "Keyboards and mice", LocalDateTime.now());
+        Category expectedCategory = modelMapper.map(categoryDTO, Category.class);
+        expectedCategory.setId(null);
+        expectedCategory.setCreatedAt(null);
+
+        assertEquals(expectedCategory, categoryMapper.toEntity(categoryDTO));
+
+        SupplierDTO supplierDTO = new SupplierDTO(98L, "Logitech", "sales@logitech.example", "+41 21 863 5111",
+                "Lausanne", "Peripherals", LocalDateTime.now());
+        Supplier expectedSupplier = modelMapper.map(supplierDTO, Supplier.class);
+        expectedSupplier.setId(null);
+        expectedSupplier.setCreatedAt(null);
+
+        assertEquals(expectedSupplier, supplierMapper.toEntity(supplierDTO));
+    }
+
+    /** ProductService.convertToDTO before the hand-written mapper. */
+    private ProductDTO modelMapperProduct(Product product) {
+        ProductDTO dto = modelMapper.map(product, ProductDTO.class);
+        if (product.getCategory() != null) {
+            dto.setCategoryId(product.getCategory().getId());
+            dto.setCategoryName(product.getCategory().getName());
+        }
+        if (product.getSupplier() != null) {
+            dto.setSupplierId(product.getSupplier().getId());
+            dto.setSupplierName(product.getSupplier().getName());
+        }
+        if (product.getCreatedBy() != null) {
+            dto.setCreatedByUserId(product.getCreatedBy().getId());
+            dto.setCreatedByUsername(product.getCreatedBy().getUsername());
+        }
+        dto.setStockQuantity(product.getStockQuantity());
+        return dto;
+    }
+
+    /** StockTransactionService.convertToDTO before the hand-written mapper. */
+    private TransactionDTO modelMapperTransaction(StockTransaction transaction) {
+        TransactionDTO dto = modelMapper.map(transaction, TransactionDTO.class);
+        if (transaction.getProduct() != null) {
+            dto.setProductId(transaction.getProduct().getId());
+            dto.setProductName(transaction.getProduct().getName());
+            dto.setProductSku(transaction.getProduct().getSku());
+        }
+        if (transaction.getUser() != null) {
+            dto.setUserId(transaction.getUser().getId());
+            dto.setUsername(transaction.getUser().getUsername());
+        }
+        return dto;
+    }
+
+    private Product product(Category category, Supplier supplier, User createdBy) {
+        Product product = new Product();
+        product.setId(11L);
+        product.setName("Dell XPS 13");
+        product.setSku("DELL-XPS-13");
+        product.setDescription("13 inch ultrabook");
+        product.setPrice(new BigDecimal("1299.99"));
+        product.setStockQuantity(42);
+        product.setReorderLevel(5);
+        product.setStockBucketCount(4);
+        product.setImageUrl("https://cdn.example.com/xps13.png");
+        product.setCategory(category);
+        product.setSupplier(supplier);
+        product.setCreatedBy(createdBy);
+        product.setCreatedAt(LocalDateTime.of(2024, 5, 1, 9, 0));
+        product.setUpdatedAt(LocalDateTime.of(2024, 5, 2, 9, 0));
+        return product;
+    }
+
+    private StockTransaction transaction(Product product, User user) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setId(101L);
+        transaction.setProduct(product);
+        transaction.setUser(user);
+        transaction.setTransactionType(TransactionType.SALE);
+        transaction.setQuantity(2);
+        transaction.setUnitPrice(new BigDecimal("1299.99"));
+        transaction.setTotalPrice(new BigDecimal("2599.98"));
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setNotes("POS 3");
+        transaction.setTransactionDate(LocalDateTime.of(2024, 5, 3, 14, 15));
+        transaction.setJournalSequence(2048L);
+        return transaction;
+    }
+
+    private Category category() {
+        Category category = new Category();
+        category.setId(3L);
+        category.setName("Electronics");
+        category.setDescription("Laptops and phones");
+        category.setCreatedAt(LocalDateTime.of(2024, 1, 10, 8, 0));
+        return category;
+    }
+
+    private Supplier supplier() {
+        Supplier supplier = new Supplier();
+        supplier.setId(5L);
+        supplier.setName("Dell Technologies");
+        supplier.setEmail("orders@dell.example");
+        supplier.setPhone("+1 512 338 4400");
+        supplier.setAddress("Round Rock, TX");
+        supplier.setDescription("Laptops");
+        supplier.setCreatedAt(LocalDateTime.of(2024, 1, 11, 8, 0));
+        return supplier;
+    }
+
+    private User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("mapper_user");
+        user.setEmail("mapper_user@example.com");
+        user.setPassword("$2a$10$hash");
+        user.setFullName("Mapper User");
+        user.setRole(UserRole.ADMIN);
+        user.setEnabled(false);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 12, 8, 0));
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ims.stockmanagement.repositories;
+
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.mappers.ProductMapper;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.Supplier;
+import com.ims.stockmanagement.models.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The ProductDTO projections return what ProductMapper returns for the same row, without
+ * putting any entity into the persistence context.
+ */
+@DataJpaTest
+class ProductRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ProductMapper productMapper = new ProductMapper();
+
+    @Test
+    void pagedProjectionMatchesTheMapperAndLoadsNoEntities() {
+        Product withRelations = persistProduct("PRJ-001", "Projection Laptop", 50, true);
+        Product withoutRelations = persistProduct("PRJ-002", "Projection Cable", 3, false);
+        entityManager.flush();
+        entityManager.clear();
+        // Expected rows as read back from the database, so column precision applies to both sides
+        ProductDTO expectedWithRelations = productMapper.toDTO(
+                productRepository.findByIdWithRelations(withRelations.getId()).orElseThrow());
+        ProductDTO expectedWithoutRelations = productMapper.toDTO(
+                productRepository.findByIdWithRelations(withoutRelations.getId()).orElseThrow());
+        entityManager.clear();
+
+        Page<ProductDTO> page = productRepository.findAllProductDTOs(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "sku")));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(expectedWithRelations, expectedWithoutRelations), page.getContent());
+        assertNull(page.getContent().get(1).getSupplierId());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount(),
+                "the projection must not put Product, Category, Supplier or User entities in the persistence context");
+    }
+
+    @Test
+    void searchAndLowStockProjectionsFilterLikeTheEntityQueries() {
+        persistProduct("PRJ-101", "Projection Monitor", 50, true);
+        persistProduct("PRJ-102", "Projection Mouse", 3, true);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of("PRJ-101"), skus(productRepository.findDTOsByNameContainingIgnoreCase("monitor", PageRequest.of(0, 10)).getContent()));
+        assertEquals(List.of("PRJ-102"), skus(productRepository.findDTOsByNameOrSkuContaining("prj-102", PageRequest.of(0, 10)).getContent()));
+        assertEquals(List.of("PRJ-102"), skus(productRepository.findLowStockProductDTOs(PageRequest.of(0, 10)).getContent()));
+    }
+
+    @Test
+    void lowStockCandidateFollowsEntityAndBulkStockWrites() {
+        Long id = persistProduct("PRJ-201", "Projection Dock", 50, false).getId();
+        entityManager.flush();
+        entityManager.clear();
+        assertFalse(lowStockCandidate(id));
+
+        productRepository.decrementStockIfAvailable(id, 45, LocalDateTime.now());
+        assertTrue(lowStockCandidate(id));
+        assertEquals(List.of("PRJ-201"), skus(productRepository.findLowStockProductDTOs(PageRequest.of(0, 10)).getContent()));
+
+        productRepository.adjustStockBy(id, 20, LocalDateTime.now());
+        assertFalse(lowStockCandidate(id));
+        assertEquals(List.of(), skus(productRepository.findLowStockProductDTOs(PageRequest.of(0, 10)).getContent()));
+
+        Product product = entityManager.find(Product.class, id);
+        product.setReorderLevel(30);
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(lowStockCandidate(id));
+    }
+
+    @Test
+    void categoryAndLowStockProjectionsArePagedInTheDatabase() {
+        Product first = persistProduct("PRJ-301", "Projection Hub", 1, false);
+        for (int i = 2; i <= 3; i++) {
+            persistProduct("PRJ-30" + i, "Projection Hub " + i, i, false).setCategory(first.getCategory());
+        }
+        persistProduct("PRJ-399", "Projection Elsewhere", 50, false);
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<ProductDTO> byCategory = productRepository.findDTOsByCategoryId(
+                first.getCategory().getId(), PageRequest.of(0, 2, Sort.by("sku")));
+        assertEquals(3, byCategory.getTotalElements());
+        assertEquals(2, byCategory.getTotalPages());
+        assertEquals(List.of("PRJ-301", "PRJ-302"), skus(byCategory.getContent()));
+
+        Page<ProductDTO> lowStock = productRepository.findLowStockProductDTOs(
+                PageRequest.of(1, 2, Sort.by("stockQuantity")));
+        assertEquals(3, lowStock.getTotalElements());
+        assertEquals(List.of("PRJ-303"), skus(lowStock.getContent()));
+    }
+
+    private boolean lowStockCandidate(Long id) {
+        entityManager.clear();
+        return entityManager.find(Product.class, id).getLowStockCandidate();
+    }
+
+    private List<String> skus(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getSku).toList();
+    }
+
+    private Product persistProduct(String sku, String name, int stock, boolean withRelations) {
+        Category category = new Category();
+        category.setName("Category-" + sku);
+        entityManager.persist(category);
+
+        Product product = new Product();
+        product.setName(name);
+        product.setSku(sku);
+        product.setDescription("Fixture for " + sku);
+        product.setPrice(new BigDecimal("99.90"));
+        product.setStockQuantity(stock);
+        product.setReorderLevel(10);
+        product.setImageUrl("https://cdn.example.com/" + sku + ".png");
+        product.setCategory(category);
+
+        if (withRelations) {
+            Supplier supplier = new Supplier();
+            supplier.setName("Supplier-" + sku);
+            entityManager.persist(supplier);
+            product.setSupplier(supplier);
+
+            User user = new User();
+            user.setUsername("creator_" + sku.toLowerCase());
+            user.setEmail("creator_" + sku.toLowerCase() + "@example.com");
+            user.setPassword("not-used-in-repository-test");
+            user.setFullName("Projection Creator");
+            user.setRole(UserRole.ADMIN);
+            entityManager.persist(user);
+            product.setCreatedBy(user);
+        }
+
+        entityManager.persist(product);
+        return product;
+    }
+}
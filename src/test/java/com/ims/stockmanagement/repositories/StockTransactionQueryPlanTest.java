@@ -0,0 +1,230 @@
+package com.ims.stockmanagement.repositories;
+
+import com.ims.stockmanagement.dtos.TransactionDTO;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.User;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every ledger query that filters stock_transactions is answered from an index range, never
+ * a scan of the whole table: each repository method is run once, and the SQL Hibernate sent
+ * is EXPLAINed with the same parameters on H2 in MySQL mode.
+ *
+ * Not listed: the unfiltered first pages (findFirstTransactionDTOs, findAllTransactionDTOs),
+ * which MySQL reads backwards from idx_stock_transactions_date_id but H2 cannot, and the
+ * legacy findByStatus/findByTransactionType lists that no endpoint calls any more.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plan;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StockTransactionQueryPlanTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final RecordingStatementInspector STATEMENTS = new RecordingStatementInspector();
+
+    @TestConfiguration
+    static class CaptureStatements {
+        @Bean
+        HibernatePropertiesCustomizer recordingStatementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, STATEMENTS);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StockTransactionRepository repository;
+
+    private Long productId;
+    private Long userId;
+
+    /** 400 rows over 20 products, 20 users, the three types and 200 days. */
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Query Plan Category");
+        entityManager.persist(category);
+
+        List<Product> products = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            products.add(persistProduct(category, i));
+            users.add(persistUser(i));
+        }
+        for (int i = 0; i < 400; i++) {
+            StockTransaction transaction = new StockTransaction();
+            transaction.setProduct(products.get(i % 20));
+            transaction.setUser(users.get((i / 20) % 20));
+            transaction.setTransactionType(TransactionType.values()[i % TransactionType.values().length]);
+            transaction.setQuantity(1);
+            transaction.setUnitPrice(new BigDecimal("10.00"));
+            transaction.setTransactionDate(START.plusHours(12L * i));
+            entityManager.persist(transaction);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        productId = products.get(3).getId();
+        userId = users.get(7).getId();
+    }
+
+    @Test
+    void productHistoryIsReadFromTheProductDateIndex() {
+        String index = "idx_stock_transactions_product_date_id";
+        LocalDateTime cursor = START.plusDays(100);
+
+        assertIndexed(index, () -> repository.findFirstTransactionDTOsByProduct(productId, PageRequest.of(0, 20)),
+                productId, 20);
+        assertIndexed(index, () -> repository.findTransactionDTOsByProductAfter(productId, cursor, 500L, PageRequest.of(0, 20)),
+                productId, cursor, cursor, 500L, 20);
+        assertIndexed(index, () -> repository.findByProductIdOrderByTransactionDateDesc(productId),
+                productId);
+        assertIndexed(index, () -> repository.existsByProductId(productId),
+                productId, 1);
+    }
+
+    @Test
+    void userHistoryIsReadFromTheUserDateIndex() {
+        String index = "idx_stock_transactions_user_date_id";
+        LocalDateTime cursor = START.plusDays(100);
+
+        assertIndexed(index, () -> repository.findFirstTransactionDTOsByUser(userId, PageRequest.of(0, 20)),
+                userId, 20);
+        assertIndexed(index, () -> repository.findTransactionDTOsByUserAfter(userId, cursor, 500L, PageRequest.of(0, 20)),
+                userId, cursor, cursor, 500L, 20);
+    }
+
+    @Test
+    void typeHistoryIsReadFromTheTypeDateIndex() {
+        String index = "idx_stock_transactions_type_date_id";
+        LocalDateTime cursor = START.plusDays(100);
+
+        assertIndexed(index, () -> repository.findFirstTransactionDTOsByType(TransactionType.SALE, PageRequest.of(0, 20)),
+                TransactionType.SALE.name(), 20);
+        assertIndexed(index, () -> repository.findTransactionDTOsByTypeAfter(TransactionType.SALE, cursor, 500L, PageRequest.of(0, 20)),
+                TransactionType.SALE.name(), cursor, cursor, 500L, 20);
+    }
+
+    @Test
+    void cursorPagesAndDateRangesAreReadFromTheDateIndex() {
+        String index = "idx_stock_transactions_date_id";
+        LocalDateTime from = START.plusDays(50);
+        LocalDateTime to = START.plusDays(51);
+
+        assertIndexed(index, () -> repository.findTransactionDTOsAfter(from, 500L, PageRequest.of(0, 20)),
+                from, from, 500L, 20);
+        assertIndexed(index, () -> repository.findByTransactionDateBetweenWithRelations(from, to),
+                from, to);
+        assertIndexed(index, () -> {
+            try (Stream<TransactionDTO> rows = repository.streamTransactionDTOs(from, to)) {
+                rows.forEach(row -> { });
+            }
+        }, from, to);
+    }
+
+    /**
+     * Runs the repository call, then EXPLAINs the statement it sent. The limit Hibernate
+     * renders for a Pageable is a parameter too, so it comes last in parameters.
+     */
+    private void assertIndexed(String expectedIndex, Runnable repositoryCall, Object... parameters) {
+        STATEMENTS.clear();
+        repositoryCall.run();
+        String sql = STATEMENTS.last();
+        assertNotNull(sql, "the repository call sent no SQL");
+
+        String plan = explain(sql, parameters).toLowerCase(Locale.ROOT);
+        assertFalse(plan.contains("stock_transactions.tablescan"), "full scan of stock_transactions:\n" + plan);
+        assertTrue(plan.contains(expectedIndex), "expected " + expectedIndex + ":\n" + plan);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int placeholders = statement.getParameterMetaData().getParameterCount();
+                for (int i = 0; i < placeholders; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private Product persistProduct(Category category, int i) {
+        Product product = new Product();
+        product.setName("Query Plan Product " + i);
+        product.setSku("QPL-" + i);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(100);
+        product.setReorderLevel(10);
+        product.setCategory(category);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private User persistUser(int i) {
+        User user = new User();
+        user.setUsername("query_plan_" + i);
+        user.setEmail("query_plan_" + i + "@example.com");
+        user.setPassword("not-used-in-repository-test");
+        user.setFullName("Query Plan User");
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        entityManager.persist(user);
+        return user;
+    }
+
+    /** Keeps the statements Hibernate prepares, in order. */
+    static class RecordingStatementInspector implements StatementInspector {
+
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+
+        synchronized String last() {
+            return statements.isEmpty() ? null : statements.get(statements.size() - 1);
+        }
+    }
+}
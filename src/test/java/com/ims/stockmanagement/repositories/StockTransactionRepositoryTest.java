@@ -1,5 +1,6 @@
 package com.ims.stockmanagement.repositories;
 
+import com.ims.stockmanagement.dtos.TransactionDTO;
 import com.ims.stockmanagement.enums.TransactionType;
 import com.ims.stockmanagement.enums.UserRole;
 import com.ims.stockmanagement.models.Category;
@@ -7,16 +8,22 @@ import com.ims.stockmanagement.models.Product;
 import com.ims.stockmanagement.models.StockTransaction;
 import com.ims.stockmanagement.models.User;
 import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -92,6 +99,52 @@ class StockTransactionRepositoryTest {
         assertEquals(FIXTURE_USERNAME, transaction.getUser().getUsername());
     }
 
+    @Test
+    void persistAssignsIdsBeforeFlushSoInsertsCanBeBatched() {
+        // With IDENTITY the id only exists after an immediate INSERT; the table generator
+        // hands it out on persist, leaving the INSERT queued for the JDBC batch at flush.
+        StockTransaction first = persistTransactionGraph();
+
+        StockTransaction second = new StockTransaction();
+        second.setProduct(first.getProduct());
+        second.setUser(first.getUser());
+        second.setTransactionType(TransactionType.SALE);
+        second.setQuantity(5);
+        second.setUnitPrice(new BigDecimal("1500.00"));
+        entityManager.persist(second);
+
+        assertNotNull(first.getId());
+        assertNotNull(second.getId());
+        assertNotEquals(first.getId(), second.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(stockTransactionRepository.findById(first.getId()).isPresent());
+        assertTrue(stockTransactionRepository.findById(second.getId()).isPresent());
+    }
+
+    @Test
+    void findAllTransactionDTOsReadsColumnsWithoutLoadingEntities() {
+        StockTransaction persisted = persistTransactionGraph();
+        entityManager.flush();
+        Long transactionId = persisted.getId();
+        entityManager.clear();
+
+        Page<TransactionDTO> page = stockTransactionRepository.findAllTransactionDTOs(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "transactionDate")));
+
+        assertEquals(1, page.getTotalElements());
+        TransactionDTO dto = page.getContent().get(0);
+        assertEquals(transactionId, dto.getId());
+        assertEquals(FIXTURE_SKU, dto.getProductSku());
+        assertEquals(FIXTURE_USERNAME, dto.getUsername());
+        assertEquals(new BigDecimal("30000.00"), dto.getTotalPrice());
+        assertNotNull(dto.getTransactionDate());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount(),
+                "the projection must not put StockTransaction, Product or User entities in the persistence context");
+    }
+
     @Test
     void findByIdWithProductAndUserUnknownIdReturnsEmpty() {
         Optional<StockTransaction> result = stockTransactionRepository.findByIdWithProductAndUser(999999L);
@@ -0,0 +1,115 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-for-unit-tests-must-be-at-least-256-bits-long-for-hs256";
+
+    private final JwtService jwtService = new JwtService(SECRET, 3_600_000L);
+
+    @Test
+    void parseAndValidateReturnsAllAccountClaims() {
+        Instant before = Instant.now();
+        User alice = user("alice");
+        alice.setRole(UserRole.ADMIN);
+        alice.setSecurityEpoch(3);
+        String token = jwtService.generateToken(alice);
+
+        JwtService.TokenClaims claims = jwtService.parseAndValidate(token);
+
+        assertEquals("alice", claims.username());
+        assertEquals(42L, claims.userId());
+        assertEquals(UserRole.ADMIN, claims.role());
+        assertEquals(3, claims.securityEpoch());
+        assertTrue(claims.expiresAt().isAfter(before.plusSeconds(3500)));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseAndValidate(token));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtService other = new JwtService(SECRET.replace('t', 'x'), 3_600_000L);
+        String token = other.generateToken(user("alice"));
+
+        assertThrows(SignatureException.class, () -> jwtService.parseAndValidate(token));
+    }
+
+    @Test
+    void tokenWithoutExpirationIsRejected() {
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim(JwtService.CLAIM_USER_ID, 42L)
+                .claim(JwtService.CLAIM_ROLE, "USER")
+                .claim(JwtService.CLAIM_SECURITY_EPOCH, 0L)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.parseAndValidate(token));
+    }
+
+    @Test
+    void tokenWithoutAccountClaimsIsRejected() {
+        String token = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.parseAndValidate(token));
+    }
+
+    @Test
+    void tokenWithUnknownRoleIsRejected() {
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim(JwtService.CLAIM_USER_ID, 42L)
+                .claim(JwtService.CLAIM_ROLE, "SUPERUSER")
+                .claim(JwtService.CLAIM_SECURITY_EPOCH, 0L)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.parseAndValidate(token));
+    }
+
+    @Test
+    void isTokenValidComparesTheSubject() {
+        String token = jwtService.generateToken(user("alice"));
+
+        assertTrue(jwtService.isTokenValid(token, user("alice")));
+        assertFalse(jwtService.isTokenValid(token, user("bob")));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername(username);
+        user.setRole(UserRole.USER);
+        return user;
+    }
+}
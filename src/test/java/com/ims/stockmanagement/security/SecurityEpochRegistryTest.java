@@ -0,0 +1,101 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEpochRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SecurityEpochRegistry registry;
+
+    @Test
+    void refreshLoadsEveryAccountAndAnswersWithoutQueries() {
+        when(userRepository.findAllSecurityStates()).thenReturn(List.of(
+                new AccountSecurityState(1L, 0, true),
+                new AccountSecurityState(2L, 4, false)));
+
+        registry.refresh();
+
+        assertEquals(new AccountSecurityState(2L, 4, false), registry.current(2L));
+        assertEquals(new AccountSecurityState(1L, 0, true), registry.current(1L));
+        verify(userRepository, never()).findSecurityStateById(1L);
+    }
+
+    @Test
+    void unknownAccountIsReadOnceThenKept() {
+        when(userRepository.findSecurityStateById(5L)).thenReturn(Optional.of(new AccountSecurityState(5L, 1, true)));
+
+        registry.current(5L);
+        registry.current(5L);
+
+        verify(userRepository, times(1)).findSecurityStateById(5L);
+    }
+
+    @Test
+    void missingAccountIsNull() {
+        when(userRepository.findSecurityStateById(9L)).thenReturn(Optional.empty());
+
+        assertNull(registry.current(9L));
+    }
+
+    @Test
+    void refreshDropsDeletedAccountsAndPicksUpDirectDisables() {
+        registry.update(user(1L, 0, true));
+        registry.update(user(2L, 0, true));
+        when(userRepository.findAllSecurityStates()).thenReturn(List.of(new AccountSecurityState(1L, 0, false)));
+        when(userRepository.findSecurityStateById(2L)).thenReturn(Optional.empty());
+
+        registry.refresh();
+
+        assertFalse(registry.current(1L).enabled());
+        assertNull(registry.current(2L));
+    }
+
+    @Test
+    void refreshNeverRollsBackANewerLocalEpoch() {
+        registry.update(user(1L, 3, false));
+        when(userRepository.findAllSecurityStates()).thenReturn(List.of(new AccountSecurityState(1L, 2, true)));
+
+        registry.refresh();
+
+        assertEquals(new AccountSecurityState(1L, 3, false), registry.current(1L));
+    }
+
+    @Test
+    void failedRefreshKeepsTheKnownStates() {
+        registry.update(user(1L, 0, true));
+        when(userRepository.findAllSecurityStates()).thenThrow(new IllegalStateException("database down"));
+
+        registry.refresh();
+
+        assertEquals(new AccountSecurityState(1L, 0, true), registry.current(1L));
+    }
+
+    private static User user(Long id, long securityEpoch, boolean enabled) {
+        User user = new User();
+        user.setId(id);
+        user.setSecurityEpoch(securityEpoch);
+        user.setEnabled(enabled);
+        return user;
+    }
+}
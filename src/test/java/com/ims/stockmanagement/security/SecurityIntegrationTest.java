@@ -208,8 +208,10 @@ class SecurityIntegrationTest {
         // client's hands when an administrator disables the account.
         String token = jwtService.generateToken(user);
 
+        // Flushed like a committed change: requests check the account registry, which is
+        // updated when the row is written, not the test's pending persistence context.
         user.setEnabled(false);
-        userRepository.save(user);
+        userRepository.saveAndFlush(user);
 
         String body = mockMvc.perform(get("/api/products/999999")
                         .header("Authorization", "Bearer " + token))
@@ -225,6 +227,91 @@ class SecurityIntegrationTest {
                 "a disabled account must never reach the SecurityContext");
     }
 
+    @Test
+    void cachedTokenIsRejectedOnceTheAccountIsDisabled() throws Exception {
+        User user = saveUserFixture("secuser");
+        String token = jwtService.generateToken(user);
+
+        // First request verifies the token and caches its claims.
+        mockMvc.perform(get("/api/products/999999")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+        SecurityContextHolder.clearContext();
+
+        user.setEnabled(false);
+        userRepository.saveAndFlush(user);
+
+        mockMvc.perform(get("/api/products/999999")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value(AUTHENTICATION_INVALID_MESSAGE));
+    }
+
+    @Test
+    void roleChangeRevokesIssuedTokens() throws Exception {
+        User user = saveUserFixture("secuser");
+        String token = jwtService.generateToken(user);
+
+        user.setRole(UserRole.ADMIN);
+        userRepository.saveAndFlush(user);
+
+        // The old token still says USER; it must not keep working with stale authorities
+        mockMvc.perform(get("/api/users")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value(AUTHENTICATION_INVALID_MESSAGE));
+        SecurityContextHolder.clearContext();
+
+        mockMvc.perform(get("/api/users")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(user)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void profileEditKeepsIssuedTokensValid() throws Exception {
+        User user = saveUserFixture("secuser");
+        String token = jwtService.generateToken(user);
+
+        user.setFullName("Renamed Security Test User");
+        userRepository.saveAndFlush(user);
+
+        mockMvc.perform(get("/api/products/999999")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deletedUserTokenIsNotAuthenticated() throws Exception {
+        User user = saveUserFixture("secuser");
+        String token = jwtService.generateToken(user);
+
+        userRepository.delete(user);
+        userRepository.flush();
+
+        mockMvc.perform(get("/api/products/999999")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value(AUTHENTICATION_REQUIRED_MESSAGE));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void tokenWithoutAccountClaimsReturns401() throws Exception {
+        User user = saveUserFixture("secuser");
+        // Shape of a token issued before tokens carried id, role and security epoch
+        String token = Jwts.builder()
+                .subject(user.getUsername())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(signingKey())
+                .compact();
+
+        mockMvc.perform(get("/api/products/999999")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.statusCode").value(401));
+    }
+
     @Test
     void expiredTokenReturns401() throws Exception {
         User user = saveUserFixture("secuser");
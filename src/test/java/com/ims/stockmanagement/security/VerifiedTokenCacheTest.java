@@ -0,0 +1,58 @@
+package com.ims.stockmanagement.security;
+
+import com.ims.stockmanagement.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache();
+    private final Instant expiresAt = Instant.now().plusSeconds(3600);
+
+    @Test
+    void returnsTheCachedClaims() {
+        JwtService.TokenClaims alice = claims(1L, "alice", expiresAt);
+        cache.put("token-a", alice);
+
+        assertEquals(alice, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void entriesLapseAfterTheTtl() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        cache.put("token-a", claims(1L, "alice", expiresAt));
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void entriesNeverOutliveTheToken() {
+        cache.put("token-a", claims(1L, "alice", Instant.now().minusSeconds(1)));
+
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, claims((long) i, "user" + i, expiresAt));
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertNotNull(cache.get("token-99"));
+    }
+
+    private static JwtService.TokenClaims claims(Long id, String username, Instant expiresAt) {
+        return new JwtService.TokenClaims(username, id, UserRole.USER, 0, expiresAt);
+    }
+}
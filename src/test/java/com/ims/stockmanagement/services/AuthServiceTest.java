@@ -3,11 +3,11 @@ package com.ims.stockmanagement.services;
 import com.ims.stockmanagement.dtos.LoginRequest;
 import com.ims.stockmanagement.dtos.RegisterRequest;
 import com.ims.stockmanagement.dtos.Response;
-import com.ims.stockmanagement.dtos.UserDTO;
 import com.ims.stockmanagement.enums.UserRole;
 import com.ims.stockmanagement.exceptions.AccountLockedException;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
 import com.ims.stockmanagement.exceptions.InvalidCredentialsException;
+import com.ims.stockmanagement.mappers.UserMapper;
 import com.ims.stockmanagement.models.RefreshToken;
 import com.ims.stockmanagement.models.User;
 import com.ims.stockmanagement.repositories.UserRepository;
@@ -19,8 +19,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -33,7 +33,6 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,8 +50,8 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private UserMapper userMapper = new UserMapper();
 
     @Mock
     private LoginAttemptService loginAttemptService;
@@ -67,7 +66,6 @@ class AuthServiceTest {
     private AuthService authService;
 
     private User testUser;
-    private UserDTO testUserDTO;
     private RegisterRequest registerRequest;
     private LoginRequest loginRequest;
     private RefreshToken refreshToken;
@@ -84,14 +82,6 @@ class AuthServiceTest {
         testUser.setRole(UserRole.USER);
         testUser.setEnabled(true);
 
-        // Setup test user DTO
-        testUserDTO = new UserDTO();
-        testUserDTO.setId(1L);
-        testUserDTO.setUsername("testuser");
-        testUserDTO.setEmail("test@example.com");
-        testUserDTO.setFullName("Test User");
-        testUserDTO.setRole(UserRole.USER);
-
         // Setup register request with strong password
         registerRequest = new RegisterRequest();
         registerRequest.setUsername("newuser");
@@ -122,7 +112,6 @@ class AuthServiceTest {
         when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("$2a$10$EncodedHash");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(jwtService.generateToken(any(User.class))).thenReturn("jwt-token-123");
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         // Act
         Response response = authService.register(registerRequest);
@@ -199,7 +188,6 @@ class AuthServiceTest {
             .thenReturn(Optional.of(testUser));
         when(jwtService.generateToken(testUser)).thenReturn(generatedToken);
         when(refreshTokenService.createRefreshToken(testUser.getUsername())).thenReturn(refreshToken);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         // Act
         Response response = authService.login(loginRequest);
@@ -316,7 +304,6 @@ class AuthServiceTest {
         when(refreshTokenService.findByToken("refresh-token-123")).thenReturn(Optional.of(refreshToken));
         when(refreshTokenService.verifyExpiration(refreshToken)).thenReturn(refreshToken);
         when(jwtService.generateToken(testUser)).thenReturn(newAccessToken);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         // Act
         Response response = authService.refreshToken("refresh-token-123");
@@ -361,7 +348,6 @@ class AuthServiceTest {
     void testGetUserInfo_Success() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         // Act
         Response response = authService.getUserInfo("testuser");
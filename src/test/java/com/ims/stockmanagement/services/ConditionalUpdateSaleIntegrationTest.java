@@ -0,0 +1,188 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.exceptions.InsufficientStockException;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Same no-oversell guarantee as ConcurrentSaleIntegrationTest, for
+ * stock.sale.locking-mode=CONDITIONAL_UPDATE: more buyers than units start together,
+ * exactly as many sales as there were units succeed, the rest are rejected with
+ * InsufficientStockException, stock ends at zero and the ledger holds one row per
+ * successful sale. No SELECT ... FOR UPDATE is issued on this path.
+ *
+ * Deliberately not @Transactional: every sale commits on its own connection.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "stock.sale.locking-mode=CONDITIONAL_UPDATE")
+class ConditionalUpdateSaleIntegrationTest {
+
+    private static final int INITIAL_STOCK = 3;
+    private static final int BUYERS = 8;
+    private static final long TIMEOUT_SECONDS = 30L;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    private Long productId;
+    private Long categoryId;
+    private Long userId;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+
+        if (productId != null) {
+            stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId)
+                    .forEach(stockTransactionRepository::delete);
+            productRepository.findById(productId).ifPresent(productRepository::delete);
+        }
+        if (categoryId != null) {
+            categoryRepository.findById(categoryId).ifPresent(categoryRepository::delete);
+        }
+        if (userId != null) {
+            userRepository.findById(userId).ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void concurrentConditionalSalesNeverOversell() throws Exception {
+        User buyer = persistUser();
+        userId = buyer.getId();
+        persistProduct();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                futures.add(executor.submit(saleTask(buyer, start)));
+            }
+            start.countDown();
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (ExecutionException executionException) {
+                    failures.add(executionException.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        assertEquals(BUYERS - INITIAL_STOCK, failures.size(),
+                "exactly one sale per unit in stock must succeed");
+        failures.forEach(failure -> assertInstanceOf(InsufficientStockException.class, failure,
+                "every losing sale must be rejected with InsufficientStockException"));
+
+        Product committed = productRepository.findById(productId).orElseThrow();
+        assertEquals(0, committed.getStockQuantity(), "stock must be sold down to zero, never below");
+
+        List<StockTransaction> ledger =
+                stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId);
+        assertEquals(INITIAL_STOCK, ledger.size(), "rejected sales must not leave ledger rows behind");
+        ledger.forEach(row -> assertEquals(TransactionType.SALE, row.getTransactionType()));
+
+        verify(productRepository, never()).findByIdForUpdate(anyLong());
+    }
+
+    private Callable<Void> saleTask(User actor, CountDownLatch start) {
+        return () -> {
+            try {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(actor, null, actor.getAuthorities()));
+                start.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+                TransactionRequest request = new TransactionRequest();
+                request.setProductId(productId);
+                request.setQuantity(1);
+                stockTransactionService.saleProduct(request);
+                return null;
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private User persistUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("conditional_sale_" + suffix);
+        user.setEmail("conditional_sale_" + suffix + "@example.com");
+        user.setPassword("not-used-in-this-test");
+        user.setFullName("Conditional Sale User " + suffix);
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+
+    private void persistProduct() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Category category = new Category();
+        category.setName("conditional-sale-category-" + suffix);
+        categoryId = categoryRepository.save(category).getId();
+
+        Product product = new Product();
+        product.setName("Conditional Sale Test Product " + suffix);
+        product.setSku("CUSALE-SKU-" + suffix);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStockQuantity(INITIAL_STOCK);
+        product.setReorderLevel(0);
+        product.setCategory(categoryRepository.findById(categoryId).orElseThrow());
+
+        productId = productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,219 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ExchangeRateCache against a local stub of the exchange-rate API: one upstream document
+ * serves every base currency, a stale snapshot is served while the upstream is down
+ * but only up to max-stale, and concurrent cold-cache callers share one upstream call.
+ */
+class ExchangeRateCacheTest {
+
+    private static final String USD_DOCUMENT =
+            "{\"base\":\"USD\",\"date\":\"2026-10-18\",\"rates\":{\"USD\":1,\"EUR\":0.8,\"TRY\":40}}";
+
+    private HttpServer upstream;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int upstreamStatus = 200;
+    // The stub answers once this is open; tests replace it to hold responses back
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExchangeRateCache cache;
+
+    @BeforeEach
+    void startUpstream() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/v4/latest/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = USD_DOCUMENT.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(upstreamStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+
+        cache = new ExchangeRateCache(new RestTemplate(), meterRegistry);
+        ReflectionTestUtils.setField(cache, "apiUrl",
+                "http://127.0.0.1:" + upstream.getAddress().getPort() + "/v4/latest/");
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        release.countDown();
+        cache.stop();
+        upstream.stop(0);
+    }
+
+    @Test
+    void everyBaseIsServedFromOneUpstreamDocument() {
+        ExternalApiService externalApiService = new ExternalApiService(cache);
+        ExchangeRateService exchangeRateService = new ExchangeRateService(cache);
+
+        assertEquals(new BigDecimal("8.00"), externalApiService.convertPrice(new BigDecimal("10"), "USD", "EUR"));
+        assertEquals(new BigDecimal("0.25"), externalApiService.convertPrice(new BigDecimal("10"), "TRY", "USD"));
+        assertEquals(new BigDecimal("0.20"), exchangeRateService.convertTRY(new BigDecimal("10"), "EUR"));
+        assertEquals(0, new BigDecimal("0.025").compareTo(exchangeRateService.getExchangeRates().getRates().get("USD")));
+        @SuppressWarnings("unchecked")
+        Map<String, BigDecimal> eurRates = (Map<String, BigDecimal>) externalApiService.getExchangeRates("eur").get("rates");
+        assertEquals(0, new BigDecimal("1.25").compareTo(eurRates.get("USD")));
+
+        assertEquals(1, requests.get(), "cross rates must not trigger one fetch per base currency");
+    }
+
+    @Test
+    void productPageIsConvertedWithOneRateLookup() {
+        ExternalApiService externalApiService = new ExternalApiService(cache);
+        List<ProductDTO> page = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setPrice(BigDecimal.valueOf(i * 4L));
+            page.add(product);
+        }
+
+        externalApiService.convertPrices(page, "TRY", "EUR");
+
+        assertEquals(new BigDecimal("0.08"), page.get(0).getConvertedPrice());
+        assertEquals(new BigDecimal("8.00"), page.get(99).getConvertedPrice());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void unknownCurrencyIsRejectedWithoutAnotherFetch() {
+        ExternalApiService externalApiService = new ExternalApiService(cache);
+        externalApiService.getSupportedCurrencies();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> externalApiService.convertPrice(BigDecimal.TEN, "USD", "XYZ"));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void staleSnapshotIsServedWhileTheUpstreamIsDown() throws Exception {
+        ExchangeRateSnapshot first = cache.current();
+        ReflectionTestUtils.setField(cache, "refreshIntervalMs", 0L);
+        upstreamStatus = 503;
+
+        assertSame(first, cache.current(), "a stale snapshot within max-stale must be served, not refetched inline");
+        waitFor(() -> requests.get() == 2);
+        assertSame(first, cache.current());
+    }
+
+    @Test
+    void backgroundRefreshReplacesAStaleSnapshot() throws Exception {
+        ExchangeRateSnapshot first = cache.current();
+        ReflectionTestUtils.setField(cache, "refreshIntervalMs", 0L);
+
+        assertSame(first, cache.current());
+        waitFor(() -> cache.current() != first);
+    }
+
+    @Test
+    void snapshotOlderThanMaxStaleIsNotServed() {
+        cache.current();
+        ReflectionTestUtils.setField(cache, "refreshIntervalMs", 0L);
+        ReflectionTestUtils.setField(cache, "maxStaleMs", 0L);
+        upstreamStatus = 503;
+
+        assertThrows(IllegalStateException.class, cache::current);
+    }
+
+    @Test
+    void scheduledRefreshStaysIdleUntilRatesAreUsed() {
+        cache.refresh();
+        assertEquals(0, requests.get());
+
+        cache.current();
+        cache.refresh();
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void concurrentColdCacheCallersShareOneUpstreamCall() throws Exception {
+        int callers = 16;
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ExchangeRateSnapshot>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(cache::current));
+            }
+            waitFor(() -> calls("coalesced") == callers - 1);
+            release.countDown();
+
+            ExchangeRateSnapshot shared = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<ExchangeRateSnapshot> result : results) {
+                assertSame(shared, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, requests.get());
+        assertEquals(1, calls("issued"));
+    }
+
+    @Test
+    void callerStopsWaitingAfterTheTimeoutButTheCallStillFillsTheCache() throws Exception {
+        ReflectionTestUtils.setField(cache, "fetchTimeoutMs", 100L);
+        release = new CountDownLatch(1);
+
+        assertThrows(IllegalStateException.class, cache::current);
+        assertEquals(1, meterRegistry.get(ExchangeRateCache.TIMEOUTS_METRIC).counter().count());
+
+        release.countDown();
+        ReflectionTestUtils.setField(cache, "fetchTimeoutMs", 5000L);
+        AtomicReference<?> snapshot = (AtomicReference<?>) ReflectionTestUtils.getField(cache, "snapshot");
+        waitFor(() -> snapshot.get() != null);
+        cache.current();
+        assertEquals(1, requests.get(), "the late answer must be cached, not fetched again");
+    }
+
+    private double calls(String outcome) {
+        return meterRegistry.get(ExchangeRateCache.CALLS_METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached within 10 seconds");
+            Thread.sleep(10);
+        }
+    }
+}
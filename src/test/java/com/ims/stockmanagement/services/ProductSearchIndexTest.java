@@ -0,0 +1,180 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.ProductSuggestionDTO;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchIndex index;
+
+    @Test
+    void matchesSubstringsOfNameOrSkuLikeTheLikeQuery() {
+        index.put(1L, "Wireless Mouse", "MOU-001");
+        index.put(2L, "Gaming Laptop", "LAP-001");
+        index.put(3L, "Laptop Stand", "ACC-104");
+        index.put(4L, "Abc Bca", "ACC-105");
+
+        assertEquals(List.of(3L, 2L), ids(index.searchNameOrSku("laptop", 0, 10)));
+        assertEquals(List.of(1L), ids(index.searchNameOrSku("ELES", 0, 10)));
+        assertEquals(List.of(2L), ids(index.searchNameOrSku("lap-0", 0, 10)));
+        assertEquals(List.of(), ids(index.searchNameOrSku("keyboard", 0, 10)));
+        // Both trigrams (abc, bca) are in "abc bca", the keyword itself is not
+        assertEquals(List.of(), ids(index.searchNameOrSku("abca", 0, 10)));
+    }
+
+    @Test
+    void shortKeywordsAreMatchedWithoutTrigrams() {
+        index.put(1L, "Wireless Mouse", "MOU-001");
+        index.put(2L, "Gaming Laptop", "LAP-001");
+
+        assertEquals(List.of(1L), ids(index.searchNameOrSku("mo", 0, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.searchNameOrSku("1", 0, 10)));
+    }
+
+    @Test
+    void ranksExactSkuThenSkuPrefixThenNamePrefixThenWordThenAnywhere() {
+        index.put(1L, "Cable organiser", "ACC-1");
+        index.put(2L, "Organiser cable", "ACC-2");
+        index.put(3L, "Red cable", "ACC-3");
+        index.put(4L, "Adapter", "CABLE");
+        index.put(5L, "Adapter", "CABLE-9");
+        index.put(6L, "Microcable", "ACC-6");
+
+        assertEquals(List.of(4L, 5L, 1L, 2L, 3L, 6L), ids(index.searchNameOrSku("cable", 0, 10)));
+    }
+
+    @Test
+    void nameSearchIgnoresTheSku() {
+        index.put(1L, "Adapter", "CABLE-1");
+        index.put(2L, "Cable", "ACC-2");
+
+        assertEquals(List.of(2L), ids(index.searchName("cable", 0, 10)));
+    }
+
+    @Test
+    void pagesCountEveryMatch() {
+        for (long id = 1; id <= 25; id++) {
+            index.put(id, "Monitor " + (char) ('a' + id), "MON-" + id);
+        }
+
+        ProductSearchIndex.SearchPage page = index.searchNameOrSku("monitor", 10, 10);
+
+        assertEquals(25, page.totalMatches());
+        assertEquals(List.of(11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L), page.ids());
+        assertEquals(List.of(), ids(index.searchNameOrSku("monitor", 30, 10)));
+    }
+
+    @Test
+    void renamesAndDeletesLeaveNoStaleEntries() {
+        index.put(1L, "Gaming Laptop", "LAP-001");
+        index.put(1L, "Gaming Desktop", "DSK-001");
+        index.put(2L, "Laptop Stand", "ACC-104");
+        index.remove(2L);
+
+        assertEquals(List.of(), ids(index.searchNameOrSku("laptop", 0, 10)));
+        assertEquals(List.of(1L), ids(index.searchNameOrSku("desk", 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void suggestsSkuPrefixesBeforeNamePrefixesUpToTheLimit() {
+        index.put(1L, "Monitor Arm", "ACC-300");
+        index.put(2L, "Gaming Monitor", "MON-120");
+        index.put(3L, "Office Monitor", "MON-100");
+        index.put(4L, "Mon-Key Keyboard", "KEY-1");
+
+        assertEquals(List.of(
+                        new ProductSuggestionDTO(3L, "MON-100", "Office Monitor"),
+                        new ProductSuggestionDTO(2L, "MON-120", "Gaming Monitor"),
+                        new ProductSuggestionDTO(4L, "KEY-1", "Mon-Key Keyboard"),
+                        new ProductSuggestionDTO(1L, "ACC-300", "Monitor Arm")),
+                index.suggest("mon", 10));
+        assertEquals(List.of(3L, 2L), index.suggest("MON", 2).stream().map(ProductSuggestionDTO::getId).toList());
+        assertEquals(List.of(2L), index.suggest("mon-12", 10).stream().map(ProductSuggestionDTO::getId).toList());
+    }
+
+    @Test
+    void suggestionsFollowRenamesAndDeletes() {
+        index.put(1L, "Office Monitor", "MON-100");
+        index.put(1L, "Office Display", "DSP-100");
+        index.put(2L, "Monitor Arm", "MON-200");
+        index.remove(2L);
+
+        assertEquals(List.of(), index.suggest("mon", 10));
+        assertEquals(List.of(new ProductSuggestionDTO(1L, "DSP-100", "Office Display")), index.suggest("dsp", 10));
+    }
+
+    @Test
+    void rebuildReadsTheTableInBatchesAndBecomesReady() {
+        ReflectionTestUtils.setField(index, "rebuildBatchSize", 2);
+        when(productRepository.findSearchFieldsAfter(eq(Long.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(rows(new Object[]{1L, "Gaming Laptop", "LAP-001"}, new Object[]{2L, "Mouse", "MOU-001"}));
+        when(productRepository.findSearchFieldsAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(rows(new Object[]{3L, "Laptop Stand", "ACC-104"}));
+        index.put(99L, "Laptop deleted meanwhile", "OLD-1");
+        assertFalse(index.isReady());
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(3L, 1L), ids(index.searchNameOrSku("laptop", 0, 10)));
+    }
+
+    @Test
+    void changesDuringARebuildAreNotLost() {
+        when(productRepository.findSearchFieldsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            // Committed while the table is being read, after its row was read
+            index.put(1L, "Gaming Desktop", "DSK-001");
+            index.put(2L, "Laptop Stand", "ACC-104");
+            return rows(new Object[]{1L, "Gaming Laptop", "LAP-001"});
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(2L), ids(index.searchNameOrSku("laptop", 0, 10)));
+        assertEquals(List.of(1L), ids(index.searchNameOrSku("desktop", 0, 10)));
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentIndex() {
+        index.put(1L, "Gaming Laptop", "LAP-001");
+        when(productRepository.findSearchFieldsAfter(anyLong(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        index.rebuild();
+
+        assertFalse(index.isReady());
+        assertEquals(List.of(1L), ids(index.searchNameOrSku("laptop", 0, 10)));
+    }
+
+    private static List<Long> ids(ProductSearchIndex.SearchPage page) {
+        return page.ids();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
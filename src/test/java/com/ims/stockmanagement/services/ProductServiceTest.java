@@ -1,10 +1,12 @@
 package com.ims.stockmanagement.services;
 
 import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.ProductSuggestionDTO;
 import com.ims.stockmanagement.dtos.ProductUpdateRequest;
 import com.ims.stockmanagement.dtos.Response;
 import com.ims.stockmanagement.exceptions.NotFoundException;
 import com.ims.stockmanagement.exceptions.ProductHasTransactionHistoryException;
+import com.ims.stockmanagement.mappers.ProductMapper;
 import com.ims.stockmanagement.models.Category;
 import com.ims.stockmanagement.models.Product;
 import com.ims.stockmanagement.models.StockTransaction;
@@ -23,8 +25,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,7 +42,6 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,7 +63,13 @@ class ProductServiceTest {
     private StockTransactionRepository stockTransactionRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private WriteBehindStockLedger writeBehindStockLedger;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
 
     @Mock
     private Authentication authentication;
@@ -134,7 +145,6 @@ class ProductServiceTest {
         // Arrange
         List<Product> products = Arrays.asList(testProduct);
         when(productRepository.findAllByOrderByCreatedAtDesc()).thenReturn(products);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
 
         // Act
         Response response = productService.getAllProducts();
@@ -151,7 +161,6 @@ class ProductServiceTest {
     void testGetProductById_Success() {
         // Arrange
         when(productRepository.findByIdWithRelations(1L)).thenReturn(Optional.of(testProduct));
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
 
         // Act
         Response response = productService.getProductById(1L);
@@ -187,7 +196,6 @@ class ProductServiceTest {
         when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
 
         // Act
         Response response = productService.createProduct(testProductDTO);
@@ -241,7 +249,6 @@ class ProductServiceTest {
         when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
 
         // Act
         Response response = productService.updateProduct(1L, updateRequest);
@@ -276,7 +283,6 @@ class ProductServiceTest {
         when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
 
         // Act
         Response response = productService.createProduct(createDTO);
@@ -323,7 +329,6 @@ class ProductServiceTest {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
         when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
         when(productRepository.save(any(Product.class))).thenReturn(lockedProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
 
         // Act
         Response response = productService.updateProduct(1L, updateRequest);
@@ -431,40 +436,98 @@ class ProductServiceTest {
     @Test
     void testGetLowStockProducts_Success() {
         // Arrange
-        Product lowStockProduct = new Product();
+        ProductDTO lowStockProduct = new ProductDTO();
         lowStockProduct.setId(2L);
         lowStockProduct.setName("Low Stock Item");
         lowStockProduct.setStockQuantity(5);
         lowStockProduct.setReorderLevel(10);
+        lowStockProduct.setStockBucketCount(0);
 
-        when(productRepository.findLowStockProducts()).thenReturn(Arrays.asList(lowStockProduct));
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("stockQuantity", "id"));
+        when(productRepository.findLowStockProductDTOs(pageable))
+            .thenReturn(new PageImpl<>(List.of(lowStockProduct), pageable, 21));
 
         // Act
-        Response response = productService.getLowStockProducts();
+        Response response = productService.getLowStockProducts(0, 20);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
         assertTrue(response.getMessage().contains("Low stock"));
-        verify(productRepository, times(1)).findLowStockProducts();
+        assertEquals(21L, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+        verify(productRepository, times(1)).findLowStockProductDTOs(pageable);
     }
 
     @Test
-    void testSearchProducts_Success() {
-        // Arrange
+    void testSearchProducts_FallbackIsPagedInTheDatabase() {
+        // Arrange: index not built yet, page 2 of 41 LIKE matches
         String keyword = "laptop";
-        when(productRepository.findByNameOrSkuContainingWithRelations(keyword))
-            .thenReturn(Arrays.asList(testProduct));
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(testProductDTO);
+        Pageable pageable = PageRequest.of(2, 20, Sort.by("name", "id"));
+        when(productRepository.findDTOsByNameOrSkuContaining(keyword, pageable))
+            .thenReturn(new PageImpl<>(List.of(testProductDTO), pageable, 41));
 
         // Act
-        Response response = productService.searchProducts(keyword);
+        Response response = productService.searchProducts(keyword, 2, 20);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
-        assertNotNull(response.getProductList());
         assertEquals(1, response.getProductList().size());
+        assertEquals(41L, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+    }
+
+    @Test
+    void testSuggestProducts_CapsTheLimitAndReturnsOnlyIdSkuName() {
+        // Arrange
+        List<ProductSuggestionDTO> suggestions = List.of(new ProductSuggestionDTO(1L, "LAP-001", "Test Laptop"));
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.suggest("lap", 50)).thenReturn(suggestions);
+
+        // Act
+        Response response = productService.suggestProducts("lap", 500);
+
+        // Assert
+        assertEquals(200, response.getStatusCode());
+        assertEquals(suggestions, response.getSuggestions());
+        assertNull(response.getProductList());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testSuggestProducts_FallsBackToTheDatabaseUntilTheIndexIsBuilt() {
+        // Arrange
+        when(productRepository.findSuggestionsByPrefix("lap", PageRequest.of(0, 10)))
+            .thenReturn(List.of(new ProductSuggestionDTO(1L, "LAP-001", "Test Laptop")));
+
+        // Act
+        Response response = productService.suggestProducts("lap", null);
+
+        // Assert
+        assertEquals(1, response.getSuggestions().size());
+        verify(productSearchIndex, never()).suggest(any(), anyInt());
+    }
+
+    @Test
+    void testSearchProducts_UsesIndexRankingAndReadsOnlyThePage() {
+        // Arrange
+        ProductDTO second = new ProductDTO();
+        second.setId(2L);
+        second.setSku("LAP-002");
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.searchNameOrSku("laptop", 20, 20))
+            .thenReturn(new ProductSearchIndex.SearchPage(List.of(2L, 1L), 42));
+        when(productRepository.findDTOsByIdIn(List.of(2L, 1L)))
+            .thenReturn(Arrays.asList(testProductDTO, second));
+
+        // Act
+        Response response = productService.searchProducts("laptop", 1, 20);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), response.getProductList().stream().map(ProductDTO::getId).toList());
+        assertEquals(42L, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+        verify(productRepository, never()).findDTOsByNameOrSkuContaining(any(), any());
     }
 }
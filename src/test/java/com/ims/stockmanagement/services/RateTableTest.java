@@ -0,0 +1,77 @@
+package com.ims.stockmanagement.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateTableTest {
+
+    private final RateTable table = new RateTable(rates("USD", "1", "EUR", "0.8", "TRY", "40"));
+
+    @Test
+    void codesAreIndexedInUpstreamOrder() {
+        assertEquals(0, table.indexOf("USD"));
+        assertEquals(2, table.indexOf("TRY"));
+        assertEquals("EUR", table.code(1));
+        assertEquals(List.of("USD", "EUR", "TRY"), table.codes());
+    }
+
+    @Test
+    void unknownAndMalformedCodesAreUnsupported() {
+        assertEquals(RateTable.UNSUPPORTED, table.indexOf("GBP"));
+        assertEquals(RateTable.UNSUPPORTED, table.indexOf("usd"));
+        assertEquals(RateTable.UNSUPPORTED, table.indexOf("US"));
+        assertEquals(RateTable.UNSUPPORTED, table.indexOf(null));
+    }
+
+    @Test
+    void crossRatesAreDerivedFromTheReferenceRates() {
+        int usd = table.indexOf("USD");
+        int eur = table.indexOf("EUR");
+        int tryIndex = table.indexOf("TRY");
+
+        assertEquals(0, new BigDecimal("0.8").compareTo(table.rate(usd, eur)));
+        assertEquals(0, new BigDecimal("0.02").compareTo(table.rate(tryIndex, eur)));
+        assertEquals(0, new BigDecimal("50").compareTo(table.rate(eur, tryIndex)));
+        assertEquals(BigDecimal.ONE, table.rate(eur, eur));
+    }
+
+    @Test
+    void crossRatesOfABaseAreComputedOnce() {
+        int tryIndex = table.indexOf("TRY");
+        int eur = table.indexOf("EUR");
+
+        assertSame(table.rate(tryIndex, eur), table.rate(tryIndex, eur));
+    }
+
+    @Test
+    void ratesForABaseAreKeyedByCode() {
+        Map<String, BigDecimal> eurRates = table.ratesFor(table.indexOf("EUR"));
+
+        assertEquals(List.of("USD", "EUR", "TRY"), List.copyOf(eurRates.keySet()));
+        assertEquals(0, new BigDecimal("1.25").compareTo(eurRates.get("USD")));
+    }
+
+    @Test
+    void malformedCodesAndRatesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateTable(rates("usd", "1")));
+        assertThrows(IllegalArgumentException.class, () -> new RateTable(rates("EURO", "1")));
+        assertThrows(IllegalArgumentException.class, () -> new RateTable(rates("EUR", "0")));
+        assertThrows(IllegalArgumentException.class, () -> new RateTable(rates("EUR", "-1.5")));
+    }
+
+    private static Map<String, BigDecimal> rates(String... codeAndRate) {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (int i = 0; i < codeAndRate.length; i += 2) {
+            rates.put(codeAndRate[i], new BigDecimal(codeAndRate[i + 1]));
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,176 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.config.ReferenceDataCacheConfig;
+import com.ims.stockmanagement.dtos.CategoryDTO;
+import com.ims.stockmanagement.dtos.SupplierDTO;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.SupplierRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Category and Supplier through the second-level cache: reads after the first one are
+ * cache hits, and every write made through the services is visible to the next read.
+ * Asserted on cache statistics rather than statement counts, which background jobs
+ * (e.g. SecurityEpochRegistry) also move.
+ *
+ * Deliberately not @Transactional: the cache is shared between sessions, so every call
+ * has to run in its own committed transaction, as in production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceDataCacheIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> supplierIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        categoryIds.forEach(id -> categoryRepository.findById(id).ifPresent(categoryRepository::delete));
+        supplierIds.forEach(id -> supplierRepository.findById(id).ifPresent(supplierRepository::delete));
+    }
+
+    @Test
+    void repeatedCategoryLookupsAreCacheHits() {
+        Long id = createCategory("cache-category");
+        categoryRepository.findById(id);
+
+        statistics.clear();
+        assertEquals(id, categoryRepository.findById(id).orElseThrow().getId());
+        assertEquals(id, categoryRepository.findById(id).orElseThrow().getId());
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(ReferenceDataCacheConfig.CATEGORY_REGION);
+        assertEquals(2, region.getHitCount());
+        assertEquals(0, region.getMissCount());
+    }
+
+    @Test
+    void categoryUpdateAndDeleteAreVisibleImmediately() {
+        Long id = createCategory("cache-category");
+        categoryRepository.findById(id);
+
+        String renamed = "renamed-" + UUID.randomUUID().toString().substring(0, 8);
+        categoryService.updateCategory(id, new CategoryDTO(null, renamed, "updated", null));
+        assertEquals(renamed, categoryRepository.findById(id).orElseThrow().getName());
+
+        categoryService.deleteCategory(id);
+        assertTrue(categoryRepository.findById(id).isEmpty());
+    }
+
+    @Test
+    void categoryListIsCachedUntilACategoryIsWritten() {
+        createCategory("cache-category");
+        categoryService.getAllCategories();
+
+        statistics.clear();
+        int cachedSize = categoryService.getAllCategories().getCategoryList().size();
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getQueryCacheMissCount());
+
+        Long added = createCategory("cache-category");
+        List<CategoryDTO> categories = categoryService.getAllCategories().getCategoryList();
+        assertEquals(cachedSize + 1, categories.size());
+        assertTrue(categories.stream().anyMatch(category -> category.getId().equals(added)));
+    }
+
+    @Test
+    void supplierListAndLookupsAreCachedAndEvictedOnUpdate() {
+        Long id = createSupplier("cache-supplier");
+        supplierService.getAllSuppliers();
+        supplierRepository.findById(id);
+
+        statistics.clear();
+        supplierService.getAllSuppliers();
+        supplierRepository.findById(id);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics(ReferenceDataCacheConfig.SUPPLIER_REGION).getMissCount());
+
+        SupplierDTO update = supplierDTO("renamed-supplier");
+        supplierService.updateSupplier(id, update);
+
+        assertEquals(update.getName(), supplierRepository.findById(id).orElseThrow().getName());
+        assertTrue(supplierService.getAllSuppliers().getSupplierList().stream()
+                .anyMatch(supplier -> supplier.getName().equals(update.getName())));
+    }
+
+    @Test
+    void hitsAndMissesArePublishedAsMeters() {
+        Long id = createCategory("cache-category");
+        categoryRepository.findById(id);
+        categoryRepository.findById(id);
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", ReferenceDataCacheConfig.CATEGORY_REGION, "result", "hit")
+                .functionCounter();
+
+        assertNotNull(hits);
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", ReferenceDataCacheConfig.CATEGORY_REGION, "result", "miss")
+                .functionCounter());
+        assertTrue(hits.count() > 0);
+    }
+
+    private Long createCategory(String prefix) {
+        String name = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Long id = categoryService.createCategory(new CategoryDTO(null, name, "cached", null))
+                .getCategory().getId();
+        categoryIds.add(id);
+        return id;
+    }
+
+    private Long createSupplier(String prefix) {
+        Long id = supplierService.createSupplier(supplierDTO(prefix)).getSupplier().getId();
+        supplierIds.add(id);
+        return id;
+    }
+
+    private static SupplierDTO supplierDTO(String prefix) {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        SupplierDTO supplier = new SupplierDTO();
+        supplier.setName(prefix + "-" + unique);
+        supplier.setEmail(prefix + "-" + unique + "@example.com");
+        return supplier;
+    }
+}
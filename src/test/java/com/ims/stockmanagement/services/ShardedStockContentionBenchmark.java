@@ -0,0 +1,160 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of concurrent single-unit sales on one hot SKU, unsharded versus sharded
+ * over a growing number of buckets. Not part of the regular test run; execute with
+ * {@code ./gradlew benchmark}. Numbers are only meaningful against a real MySQL
+ * (SPRING_DATASOURCE_URL etc.), where a row lock is held until commit; under H2 the
+ * relative ordering still shows but the absolute figures do not.
+ *
+ * Tunable with -Dbenchmark.threads, -Dbenchmark.salesPerThread.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ShardedStockContentionBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final int SALES_PER_THREAD = Integer.getInteger("benchmark.salesPerThread", 200);
+    private static final int[] BUCKET_COUNTS = {0, 2, 4, 8, 16};
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void throughputScalesWithBucketCount() throws Exception {
+        User buyer = persistUser();
+        Category category = persistCategory();
+
+        // Warm-up: JIT, connection pool, Hibernate statement caches.
+        measure(buyer, category, 0);
+
+        Map<Integer, Double> salesPerSecond = new LinkedHashMap<>();
+        for (int buckets : BUCKET_COUNTS) {
+            salesPerSecond.put(buckets, measure(buyer, category, buckets));
+        }
+
+        System.out.printf("%n%-10s %12s %10s%n", "buckets", "sales/s", "speedup");
+        double baseline = salesPerSecond.get(0);
+        salesPerSecond.forEach((buckets, rate) -> System.out.printf("%-10s %12.0f %9.2fx%n",
+                buckets == 0 ? "unsharded" : buckets, rate, rate / baseline));
+
+        double widest = salesPerSecond.get(BUCKET_COUNTS[BUCKET_COUNTS.length - 1]);
+        assertTrue(widest > baseline,
+                "sharded stock must out-run the single hot row: " + widest + " vs " + baseline + " sales/s");
+    }
+
+    private double measure(User buyer, Category category, int buckets) throws Exception {
+        int totalSales = THREADS * SALES_PER_THREAD;
+        Long productId = persistProduct(category, totalSales);
+        if (buckets > 0) {
+            shardedStockService.enableSharding(productId, buckets);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(buyer, null, buyer.getAuthorities()));
+                    try {
+                        start.await();
+                        for (int i = 0; i < SALES_PER_THREAD; i++) {
+                            TransactionRequest request = new TransactionRequest();
+                            request.setProductId(productId);
+                            request.setQuantity(1);
+                            stockTransactionService.saleProduct(request);
+                        }
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                    return null;
+                }));
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - began;
+            return totalSales / (elapsed / 1_000_000_000.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User persistUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("benchmark_" + suffix);
+        user.setEmail("benchmark_" + suffix + "@example.com");
+        user.setPassword("not-used-in-this-benchmark");
+        user.setFullName("Benchmark User " + suffix);
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setName("benchmark-category-" + UUID.randomUUID().toString().substring(0, 8));
+        return categoryRepository.save(category);
+    }
+
+    private Long persistProduct(Category category, int stock) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Product product = new Product();
+        product.setName("Benchmark Hot SKU " + suffix);
+        product.setSku("BENCH-" + suffix);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        product.setReorderLevel(0);
+        product.setCategory(category);
+        return productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,233 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.ProductDTO;
+import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.exceptions.InsufficientStockException;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.ProductStockBucketRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end check of sharded stock: concurrent sales over the buckets of a hot SKU
+ * never oversell, and the product reads (by id, low-stock list) report the exact sum
+ * of the buckets rather than the stock_quantity snapshot.
+ *
+ * Deliberately not @Transactional: every sale commits on its own connection.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ShardedStockIntegrationTest {
+
+    private static final int INITIAL_STOCK = 20;
+    private static final int BUCKETS = 4;
+    private static final int BUYERS = 30;
+    private static final long TIMEOUT_SECONDS = 30L;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockBucketRepository bucketRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    private Long productId;
+    private Long categoryId;
+    private Long userId;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+
+        if (productId != null) {
+            stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId)
+                    .forEach(stockTransactionRepository::delete);
+            shardedStockService.dropBuckets(productId);
+            productRepository.findById(productId).ifPresent(productRepository::delete);
+        }
+        if (categoryId != null) {
+            categoryRepository.findById(categoryId).ifPresent(categoryRepository::delete);
+        }
+        if (userId != null) {
+            userRepository.findById(userId).ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void concurrentSalesOverBucketsNeverOversellAndReadsAreExact() throws Exception {
+        User buyer = persistUser();
+        userId = buyer.getId();
+        persistProduct();
+        shardedStockService.enableSharding(productId, BUCKETS);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                futures.add(executor.submit(saleTask(buyer, start)));
+            }
+            start.countDown();
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (ExecutionException executionException) {
+                    failures.add(executionException.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        assertEquals(BUYERS - INITIAL_STOCK, failures.size(), "exactly one sale per unit in stock must succeed");
+        failures.forEach(failure -> assertInstanceOf(InsufficientStockException.class, failure));
+
+        assertEquals(0, bucketRepository.sumQuantityByProductId(productId));
+        assertEquals(INITIAL_STOCK,
+                stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId).size());
+
+        // The stock_quantity column still holds the pre-sharding snapshot ...
+        assertEquals(INITIAL_STOCK, productRepository.findById(productId).orElseThrow().getStockQuantity());
+
+        // ... but both product reads aggregate the buckets.
+        authenticateAs(buyer);
+        ProductDTO byId = productService.getProductById(productId).getProduct();
+        assertEquals(0, byId.getStockQuantity());
+
+        List<ProductDTO> lowStock = productService.getLowStockProducts(0, 100).getProductList();
+        assertTrue(lowStock.stream().anyMatch(dto -> dto.getId().equals(productId) && dto.getStockQuantity() == 0),
+                "a sold-out sharded product must be reported as low stock with its exact quantity");
+    }
+
+    @Test
+    void rebalanceRefreshesSnapshotAndDisableFoldsBucketsBack() {
+        User buyer = persistUser();
+        userId = buyer.getId();
+        persistProduct();
+        shardedStockService.enableSharding(productId, BUCKETS);
+
+        // A purchase lands in one random bucket: 5/5/5/5 becomes 22/5/5/5 in some order.
+        authenticateAs(buyer);
+        TransactionRequest purchase = new TransactionRequest();
+        purchase.setProductId(productId);
+        purchase.setQuantity(17);
+        stockTransactionService.purchaseProduct(purchase);
+
+        shardedStockService.rebalance(productId);
+
+        int expectedTotal = INITIAL_STOCK + 17;
+        bucketRepository.findBucketQuantities(productId).forEach(bucket -> {
+            int quantity = ((Number) bucket[1]).intValue();
+            assertTrue(quantity == expectedTotal / BUCKETS || quantity == expectedTotal / BUCKETS + 1,
+                    "buckets must be evened out, got " + quantity);
+        });
+        assertEquals(expectedTotal, productRepository.findById(productId).orElseThrow().getStockQuantity());
+
+        shardedStockService.disableSharding(productId);
+
+        Product folded = productRepository.findById(productId).orElseThrow();
+        assertEquals(0, folded.getStockBucketCount());
+        assertEquals(expectedTotal, folded.getStockQuantity());
+        assertEquals(0, bucketRepository.findBucketQuantities(productId).size());
+    }
+
+    private Callable<Void> saleTask(User actor, CountDownLatch start) {
+        return () -> {
+            try {
+                authenticateAs(actor);
+                start.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+                TransactionRequest request = new TransactionRequest();
+                request.setProductId(productId);
+                request.setQuantity(1);
+                stockTransactionService.saleProduct(request);
+                return null;
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private void authenticateAs(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private User persistUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("sharded_sale_" + suffix);
+        user.setEmail("sharded_sale_" + suffix + "@example.com");
+        user.setPassword("not-used-in-this-test");
+        user.setFullName("Sharded Sale User " + suffix);
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+
+    private void persistProduct() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Category category = new Category();
+        category.setName("sharded-stock-category-" + suffix);
+        categoryId = categoryRepository.save(category).getId();
+
+        Product product = new Product();
+        product.setName("Sharded Stock Test Product " + suffix);
+        product.setSku("SHARD-SKU-" + suffix);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStockQuantity(INITIAL_STOCK);
+        product.setReorderLevel(5);
+        product.setCategory(categoryRepository.findById(categoryId).orElseThrow());
+
+        productId = productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,148 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.exceptions.AlreadyExistsException;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.ProductStockBucket;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.ProductStockBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedStockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductStockBucketRepository bucketRepository;
+
+    @InjectMocks
+    private ShardedStockService shardedStockService;
+
+    @Test
+    void saleCoveredByOneBucketNeverLocksAllBuckets() {
+        when(bucketRepository.findBucketQuantities(1L)).thenReturn(List.of(
+                new Object[]{0, 5}, new Object[]{1, 5}, new Object[]{2, 5}, new Object[]{3, 5}));
+        when(bucketRepository.decrementIfAvailable(eq(1L), anyInt(), eq(3))).thenReturn(1);
+
+        assertTrue(shardedStockService.tryDecrement(1L, 3));
+
+        verify(bucketRepository, times(1)).decrementIfAvailable(eq(1L), anyInt(), eq(3));
+        verify(bucketRepository, never()).lockBucketQuantities(anyLong());
+    }
+
+    @Test
+    void bucketEmptiedByARaceFallsThroughToTheNextCandidate() {
+        when(bucketRepository.findBucketQuantities(1L)).thenReturn(List.of(
+                new Object[]{0, 5}, new Object[]{1, 5}));
+        // Whichever bucket is tried first was drained by a concurrent sale; the other still covers it.
+        when(bucketRepository.decrementIfAvailable(eq(1L), anyInt(), eq(3))).thenReturn(0, 1);
+
+        assertTrue(shardedStockService.tryDecrement(1L, 3));
+
+        verify(bucketRepository, times(2)).decrementIfAvailable(eq(1L), anyInt(), eq(3));
+        verify(bucketRepository, never()).lockBucketQuantities(anyLong());
+    }
+
+    @Test
+    void saleSpreadOverSeveralBucketsDrainsThemInBucketOrder() {
+        List<Object[]> buckets = List.of(new Object[]{0, 4}, new Object[]{1, 0}, new Object[]{2, 9});
+        when(bucketRepository.findBucketQuantities(1L)).thenReturn(buckets);
+        when(bucketRepository.lockBucketQuantities(1L)).thenReturn(buckets);
+        when(bucketRepository.decrementIfAvailable(1L, 0, 4)).thenReturn(1);
+        when(bucketRepository.decrementIfAvailable(1L, 2, 6)).thenReturn(1);
+
+        assertTrue(shardedStockService.tryDecrement(1L, 10));
+
+        // No bucket covers 10 on its own, so no single-bucket attempt was made.
+        verify(bucketRepository, never()).decrementIfAvailable(eq(1L), anyInt(), eq(10));
+        verify(bucketRepository).decrementIfAvailable(1L, 0, 4);
+        verify(bucketRepository).decrementIfAvailable(1L, 2, 6);
+    }
+
+    @Test
+    void saleLargerThanAllBucketsTogetherChangesNothing() {
+        List<Object[]> buckets = List.of(new Object[]{0, 4}, new Object[]{1, 5});
+        when(bucketRepository.findBucketQuantities(1L)).thenReturn(buckets);
+        when(bucketRepository.lockBucketQuantities(1L)).thenReturn(buckets);
+
+        assertFalse(shardedStockService.tryDecrement(1L, 10));
+
+        verify(bucketRepository, never()).decrementIfAvailable(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void incrementOnVanishedBucketsIsReportedAsConcurrencyConflict() {
+        when(bucketRepository.increment(eq(1L), anyInt(), eq(5))).thenReturn(0);
+
+        assertThrows(PessimisticLockingFailureException.class, () -> shardedStockService.increment(1L, 4, 5));
+    }
+
+    @Test
+    void enableShardingSplitsCurrentStockEvenly() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStockQuantity(10);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+
+        shardedStockService.enableSharding(1L, 4);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductStockBucket>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bucketRepository).saveAll(captor.capture());
+        List<Integer> quantities = captor.getValue().stream().map(ProductStockBucket::getQuantity).toList();
+        assertEquals(List.of(3, 3, 2, 2), quantities);
+        assertEquals(4, product.getStockBucketCount());
+    }
+
+    @Test
+    void enableShardingTwiceIsRejected() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStockBucketCount(4);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+
+        assertThrows(AlreadyExistsException.class, () -> shardedStockService.enableSharding(1L, 8));
+        verify(bucketRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void rebalanceEvensOutBucketsAndRefreshesSnapshot() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStockQuantity(0);
+        product.setStockBucketCount(3);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(bucketRepository.lockBucketQuantities(1L)).thenReturn(List.of(
+                new Object[]{0, 0}, new Object[]{1, 12}, new Object[]{2, 4}));
+
+        shardedStockService.rebalance(1L);
+
+        verify(bucketRepository).setQuantity(1L, 0, 6);
+        verify(bucketRepository).setQuantity(1L, 1, 5);
+        verify(bucketRepository).setQuantity(1L, 2, 5);
+        assertEquals(16, product.getStockQuantity());
+    }
+}
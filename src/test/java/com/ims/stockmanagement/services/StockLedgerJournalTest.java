@@ -0,0 +1,106 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockLedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendedEntriesReadBackInOrderAcrossSegments() throws IOException {
+        // Tiny segments: every group closes its segment.
+        try (StockLedgerJournal journal = new StockLedgerJournal(directory, 0, 1)) {
+            journal.append(List.of(entry(1, TransactionType.PURCHASE, "restock"), entry(2, TransactionType.SALE, null)));
+            journal.append(List.of(entry(3, TransactionType.ADJUSTMENT, "count")));
+        }
+
+        List<StockLedgerEntry> entries = StockLedgerJournal.readAll(directory);
+
+        assertEquals(2, segmentCount());
+        assertEquals(List.of(1L, 2L, 3L), entries.stream().map(StockLedgerEntry::getJournalSequence).toList());
+        StockLedgerEntry sale = entries.get(1);
+        assertEquals(TransactionType.SALE, sale.getTransactionType());
+        assertEquals(new BigDecimal("12.50"), sale.getUnitPrice());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000), sale.getTransactionDate());
+        assertNull(sale.getNotes());
+        assertEquals("restock", entries.get(0).getNotes());
+    }
+
+    @Test
+    void releaseDeletesOnlyFullyFlushedSegments() throws IOException {
+        try (StockLedgerJournal journal = new StockLedgerJournal(directory, 0, 1)) {
+            journal.append(List.of(entry(1, TransactionType.SALE, null), entry(2, TransactionType.SALE, null)));
+            journal.append(List.of(entry(3, TransactionType.SALE, null)));
+
+            journal.release(2);
+            assertEquals(1, segmentCount());
+
+            journal.release(3);
+            assertEquals(0, segmentCount());
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndIsSkipped() throws IOException {
+        try (StockLedgerJournal journal = new StockLedgerJournal(directory, 0, Long.MAX_VALUE)) {
+            journal.append(List.of(entry(1, TransactionType.SALE, null)));
+        }
+        // A crash in the middle of the next group's write: a length prefix and half a frame.
+        Files.write(onlySegment(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        List<StockLedgerEntry> entries = StockLedgerJournal.readAll(directory);
+
+        assertEquals(1, entries.size());
+        assertEquals(1L, entries.get(0).getJournalSequence());
+    }
+
+    @Test
+    void corruptionBeforeTheNewestSegmentIsRefused() throws IOException {
+        try (StockLedgerJournal journal = new StockLedgerJournal(directory, 0, 1)) {
+            journal.append(List.of(entry(1, TransactionType.SALE, null)));
+            journal.append(List.of(entry(2, TransactionType.SALE, null)));
+        }
+        Path oldest;
+        try (Stream<Path> files = Files.list(directory)) {
+            oldest = files.sorted().findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(oldest);
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(oldest, bytes);
+
+        assertThrows(IllegalStateException.class, () -> StockLedgerJournal.readAll(directory));
+    }
+
+    private StockLedgerEntry entry(long sequence, TransactionType type, String notes) {
+        return new StockLedgerEntry(sequence, 7L, 3L, type, 2, new BigDecimal("12.50"), notes,
+                LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.ims.stockmanagement.services;
 
+import com.ims.stockmanagement.dtos.BatchTransactionLineResult;
+import com.ims.stockmanagement.dtos.BatchTransactionRequest;
 import com.ims.stockmanagement.dtos.Response;
-import com.ims.stockmanagement.dtos.TransactionDTO;
 import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.StockLockingMode;
 import com.ims.stockmanagement.enums.TransactionType;
 import com.ims.stockmanagement.exceptions.InsufficientStockException;
+import com.ims.stockmanagement.mappers.TransactionMapper;
 import com.ims.stockmanagement.models.Product;
 import com.ims.stockmanagement.models.StockTransaction;
 import com.ims.stockmanagement.models.User;
@@ -18,21 +21,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -54,7 +65,10 @@ class StockTransactionServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private ShardedStockService shardedStockService;
+
+    @Spy
+    private TransactionMapper transactionMapper = new TransactionMapper();
 
     @Mock
     private SecurityContext securityContext;
@@ -106,7 +120,6 @@ class StockTransactionServiceTest {
 
         when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(transactionRepository.save(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(modelMapper.map(any(StockTransaction.class), eq(TransactionDTO.class))).thenReturn(new TransactionDTO());
 
         Response response = stockTransactionService.createTransaction(request);
 
@@ -136,7 +149,6 @@ class StockTransactionServiceTest {
 
         when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(transactionRepository.save(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(modelMapper.map(any(StockTransaction.class), eq(TransactionDTO.class))).thenReturn(new TransactionDTO());
 
         Response response = stockTransactionService.createTransaction(request);
 
@@ -175,7 +187,7 @@ class StockTransactionServiceTest {
 
         verify(productRepository, never()).save(any(Product.class));
         verify(transactionRepository, never()).save(any(StockTransaction.class));
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(transactionMapper);
     }
 
     @Test
@@ -188,7 +200,6 @@ class StockTransactionServiceTest {
 
         when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(transactionRepository.save(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(modelMapper.map(any(StockTransaction.class), eq(TransactionDTO.class))).thenReturn(new TransactionDTO());
 
         Response response = stockTransactionService.createTransaction(request);
 
@@ -265,6 +276,176 @@ class StockTransactionServiceTest {
         assertEquals(200, response.getStatusCode());
     }
 
+    @Test
+    void batchLocksEachProductOnceInAscendingIdOrderAndAppliesDeltasInMemory() {
+        setupAuthenticatedSecurityContext();
+        Product secondProduct = productWithIdAndStock(2L, 5);
+
+        when(productRepository.findAllByIdInForUpdate(anyCollection()))
+                .thenReturn(List.of(testProduct, secondProduct));
+
+        BatchTransactionRequest batch = new BatchTransactionRequest(List.of(
+                line(2L, TransactionType.PURCHASE, 10),
+                line(1L, TransactionType.SALE, 20),
+                line(1L, TransactionType.SALE, 30)
+        ), false);
+
+        Response response = stockTransactionService.createTransactionBatch(batch);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository, times(1)).findAllByIdInForUpdate(idsCaptor.capture());
+        assertEquals(List.of(1L, 2L), new ArrayList<>(idsCaptor.getValue()));
+        verify(productRepository, never()).findByIdForUpdate(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+
+        assertEquals(0, testProduct.getStockQuantity().intValue());
+        assertEquals(15, secondProduct.getStockQuantity().intValue());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockTransaction>> rowsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository, times(1)).saveAll(rowsCaptor.capture());
+        assertEquals(3, rowsCaptor.getValue().size());
+        rowsCaptor.getValue().forEach(row -> assertSame(testUser, row.getUser()));
+        verify(transactionRepository, never()).save(any(StockTransaction.class));
+
+        assertEquals(201, response.getStatusCode());
+        assertEquals(3, response.getBatchResults().size());
+        response.getBatchResults().forEach(result -> assertNotNull(result.getTransaction()));
+    }
+
+    @Test
+    void batchRejectsOnlyTheLinesThatCannotBeApplied() {
+        setupAuthenticatedSecurityContext();
+        when(productRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(testProduct));
+
+        BatchTransactionRequest batch = new BatchTransactionRequest(List.of(
+                line(1L, TransactionType.SALE, 40),
+                line(1L, TransactionType.SALE, 40),   // only 10 left after the first line
+                line(99L, TransactionType.PURCHASE, 1)
+        ), false);
+
+        Response response = stockTransactionService.createTransactionBatch(batch);
+
+        assertEquals(207, response.getStatusCode());
+        List<BatchTransactionLineResult> results = response.getBatchResults();
+        assertEquals(201, results.get(0).getStatusCode());
+        assertEquals(422, results.get(1).getStatusCode());
+        assertTrue(results.get(1).getMessage().contains("Insufficient stock"));
+        assertNull(results.get(1).getTransaction());
+        assertEquals(404, results.get(2).getStatusCode());
+
+        assertEquals(10, testProduct.getStockQuantity().intValue());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockTransaction>> rowsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(rowsCaptor.capture());
+        assertEquals(1, rowsCaptor.getValue().size());
+    }
+
+    @Test
+    void atomicBatchFailsOnFirstRejectedLineWithoutWritingLedgerRows() {
+        setupAuthenticatedSecurityContext();
+        when(productRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(testProduct));
+
+        BatchTransactionRequest batch = new BatchTransactionRequest(List.of(
+                line(1L, TransactionType.SALE, 10),
+                line(1L, TransactionType.SALE, 100)
+        ), true);
+
+        assertThrows(InsufficientStockException.class, () -> stockTransactionService.createTransactionBatch(batch));
+
+        verify(transactionRepository, never()).saveAll(anyList());
+        verifyNoInteractions(transactionMapper);
+    }
+
+    @Test
+    void conditionalUpdateSaleDecrementsWithoutRowLock() {
+        ReflectionTestUtils.setField(stockTransactionService, "saleLockingMode", StockLockingMode.CONDITIONAL_UPDATE);
+        setupAuthenticatedSecurityContext();
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(transactionRepository.saveAndFlush(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productRepository.decrementStockIfAvailable(eq(1L), eq(20), any(LocalDateTime.class))).thenReturn(1);
+
+        Response response = stockTransactionService.saleProduct(line(1L, TransactionType.SALE, 20));
+
+        assertEquals(201, response.getStatusCode());
+        verify(productRepository, never()).findByIdForUpdate(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void conditionalUpdateSaleWithNoRowUpdatedThrowsInsufficientStock() {
+        ReflectionTestUtils.setField(stockTransactionService, "saleLockingMode", StockLockingMode.CONDITIONAL_UPDATE);
+        setupAuthenticatedSecurityContext();
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(transactionRepository.saveAndFlush(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productRepository.decrementStockIfAvailable(eq(1L), eq(20), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(3));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockTransactionService.saleProduct(line(1L, TransactionType.SALE, 20)));
+
+        // The message reports the stock the losing sale actually saw, not the stale entity value.
+        assertTrue(exception.getMessage().contains("Available: 3"));
+        verify(productRepository, never()).findByIdForUpdate(anyLong());
+    }
+
+    @Test
+    void saleOfShardedProductDecrementsABucketWithoutLockingTheProductRow() {
+        setupAuthenticatedSecurityContext();
+        testProduct.setStockBucketCount(4);
+
+        when(productRepository.findStockBucketCountById(1L)).thenReturn(Optional.of(4));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(transactionRepository.saveAndFlush(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(shardedStockService.tryDecrement(1L, 20)).thenReturn(true);
+
+        Response response = stockTransactionService.saleProduct(line(1L, TransactionType.SALE, 20));
+
+        assertEquals(201, response.getStatusCode());
+        verify(productRepository, never()).findByIdForUpdate(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+        assertEquals(50, testProduct.getStockQuantity().intValue(), "the snapshot column is not the sharded stock");
+    }
+
+    @Test
+    void saleOfShardedProductBeyondBucketTotalThrowsInsufficientStock() {
+        setupAuthenticatedSecurityContext();
+        testProduct.setStockBucketCount(4);
+
+        when(productRepository.findStockBucketCountById(1L)).thenReturn(Optional.of(4));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(transactionRepository.saveAndFlush(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(shardedStockService.tryDecrement(1L, 60)).thenReturn(false);
+        when(shardedStockService.totalStock(1L)).thenReturn(7);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockTransactionService.saleProduct(line(1L, TransactionType.SALE, 60)));
+
+        assertTrue(exception.getMessage().contains("Available: 7"));
+    }
+
+    private TransactionRequest line(Long productId, TransactionType type, int quantity) {
+        TransactionRequest request = new TransactionRequest();
+        request.setProductId(productId);
+        request.setTransactionType(type);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private Product productWithIdAndStock(Long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setSku("SKU-" + id);
+        product.setPrice(BigDecimal.valueOf(10.00));
+        product.setStockQuantity(stock);
+        product.setReorderLevel(1);
+        return product;
+    }
+
     private StockTransaction transactionWithTypeAndQuantity(TransactionType type, int quantity) {
         StockTransaction transaction = new StockTransaction();
         transaction.setId(1L);
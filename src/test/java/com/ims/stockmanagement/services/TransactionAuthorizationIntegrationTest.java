@@ -113,7 +113,7 @@ class TransactionAuthorizationIntegrationTest {
     void userCanReadOwnTransactions() throws Exception {
         authenticateAs(owner);
 
-        Response response = stockTransactionService.getTransactionsByUser(owner.getId());
+        Response response = stockTransactionService.getTransactionsByUser(owner.getId(), null, 20);
 
         assertEquals(200, response.getStatusCode());
         assertTrue(response.getTransactionList().stream()
@@ -132,7 +132,7 @@ class TransactionAuthorizationIntegrationTest {
         authenticateAs(owner);
 
         assertThrows(AccessDeniedException.class,
-                () -> stockTransactionService.getTransactionsByUser(otherUser.getId()),
+                () -> stockTransactionService.getTransactionsByUser(otherUser.getId(), null, 20),
                 "a normal user must not read another user's history");
 
         mockMvc.perform(get("/api/transactions/user/" + otherUser.getId())
@@ -148,7 +148,7 @@ class TransactionAuthorizationIntegrationTest {
     void adminCanReadAnotherUsersTransactions() throws Exception {
         authenticateAs(admin);
 
-        Response response = stockTransactionService.getTransactionsByUser(owner.getId());
+        Response response = stockTransactionService.getTransactionsByUser(owner.getId(), null, 20);
 
         assertEquals(200, response.getStatusCode());
         assertTrue(response.getTransactionList().stream()
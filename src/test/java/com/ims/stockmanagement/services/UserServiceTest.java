@@ -1,9 +1,9 @@
 package com.ims.stockmanagement.services;
 
-import com.ims.stockmanagement.dtos.UserDTO;
 import com.ims.stockmanagement.dtos.UserProfileUpdateRequest;
 import com.ims.stockmanagement.enums.UserRole;
 import com.ims.stockmanagement.exceptions.AlreadyExistsException;
+import com.ims.stockmanagement.mappers.UserMapper;
 import com.ims.stockmanagement.models.User;
 import com.ims.stockmanagement.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +11,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
@@ -23,7 +23,6 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,8 +45,8 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private UserMapper userMapper = new UserMapper();
 
     @InjectMocks
     private UserService userService;
@@ -141,7 +140,6 @@ class UserServiceTest {
         // Case-insensitive lookup finds the caller themselves, which is not a conflict.
         when(userRepository.findByEmailIgnoreCase("BEFORE@example.com")).thenReturn(Optional.of(existingUser));
         when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(new UserDTO());
 
         userService.updateOwnProfile("racer", emailRequest("BEFORE@example.com"));
 
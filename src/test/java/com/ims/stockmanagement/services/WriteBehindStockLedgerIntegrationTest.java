@@ -0,0 +1,316 @@
+package com.ims.stockmanagement.services;
+
+import com.ims.stockmanagement.dtos.Response;
+import com.ims.stockmanagement.dtos.TransactionRequest;
+import com.ims.stockmanagement.enums.TransactionType;
+import com.ims.stockmanagement.enums.UserRole;
+import com.ims.stockmanagement.exceptions.InsufficientStockException;
+import com.ims.stockmanagement.models.Category;
+import com.ims.stockmanagement.models.Product;
+import com.ims.stockmanagement.models.StockLedgerDeadLetter;
+import com.ims.stockmanagement.models.StockTransaction;
+import com.ims.stockmanagement.models.User;
+import com.ims.stockmanagement.repositories.CategoryRepository;
+import com.ims.stockmanagement.repositories.ProductRepository;
+import com.ims.stockmanagement.repositories.StockLedgerDeadLetterRepository;
+import com.ims.stockmanagement.repositories.StockTransactionRepository;
+import com.ims.stockmanagement.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The write-behind ledger against the real schema: concurrent sales are decided by the
+ * in-memory counter without overselling and reach the database with the next flush, and
+ * a journal left behind by a crash is replayed exactly once. An entry the database
+ * rejects is dead-lettered instead of blocking the flushes behind it.
+ *
+ * Ledgers are started by hand on a temporary journal directory, so the shared test
+ * context keeps stock.write-behind.enabled=false.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WriteBehindStockLedgerIntegrationTest {
+
+    private static final int INITIAL_STOCK = 3;
+    private static final int BUYERS = 8;
+    private static final long TIMEOUT_SECONDS = 30L;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private StockLedgerDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TempDir
+    Path journalDirectory;
+
+    private WriteBehindStockLedger ledger;
+    private Long productId;
+    private Long categoryId;
+    private Long userId;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        if (ledger != null) {
+            ledger.stop();
+        }
+
+        if (productId != null) {
+            stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId)
+                    .forEach(stockTransactionRepository::delete);
+            productRepository.findById(productId).ifPresent(productRepository::delete);
+            deadLetterRepository.deleteAll(deadLetterRepository.findByProductId(productId));
+        }
+        if (categoryId != null) {
+            categoryRepository.findById(categoryId).ifPresent(categoryRepository::delete);
+        }
+        if (userId != null) {
+            userRepository.findById(userId).ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void concurrentSalesAreDecidedInMemoryAndFlushedWithoutOverselling() throws Exception {
+        User buyer = persistUser();
+        userId = buyer.getId();
+        persistProduct();
+        ledger = startLedger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        List<Throwable> failures = new ArrayList<>();
+        List<Response> accepted = new ArrayList<>();
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                futures.add(executor.submit(saleTask(buyer, start)));
+            }
+            start.countDown();
+
+            for (Future<Response> future : futures) {
+                try {
+                    accepted.add(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } catch (ExecutionException executionException) {
+                    failures.add(executionException.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        assertEquals(INITIAL_STOCK, accepted.size(), "exactly one sale per unit in stock must be accepted");
+        accepted.forEach(response -> assertEquals(202, response.getStatusCode()));
+        failures.forEach(failure -> assertInstanceOf(InsufficientStockException.class, failure));
+
+        assertTrue(ledger.awaitFlushed(Duration.ofSeconds(TIMEOUT_SECONDS)));
+
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStockQuantity());
+        List<StockTransaction> rows = stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId);
+        assertEquals(INITIAL_STOCK, rows.size());
+        rows.forEach(row -> {
+            assertEquals(TransactionType.SALE, row.getTransactionType());
+            assertNotNull(row.getJournalSequence());
+        });
+    }
+
+    @Test
+    void journalLeftByACrashIsReplayedExactlyOnce() throws Exception {
+        User buyer = persistUser();
+        userId = buyer.getId();
+        persistProduct();
+
+        // Two sales that were acknowledged but never flushed before the process died.
+        long base = (stockTransactionRepository.findMaxJournalSequence().orElse(0L)
+                / WriteBehindStockLedger.MAX_PARTITIONS + 1) * WriteBehindStockLedger.MAX_PARTITIONS;
+        List<StockLedgerEntry> acknowledged = List.of(
+                sale(base, buyer), sale(base + WriteBehindStockLedger.MAX_PARTITIONS, buyer));
+        writeJournal(acknowledged);
+
+        ledger = startLedger();
+        assertEquals(INITIAL_STOCK - 2, productRepository.findById(productId).orElseThrow().getStockQuantity());
+        assertEquals(2, stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId).size());
+        ledger.stop();
+
+        // The same journal again, as if the crash came after the flush but before clean-up.
+        writeJournal(acknowledged);
+        ledger = startLedger();
+
+        assertEquals(INITIAL_STOCK - 2, productRepository.findById(productId).orElseThrow().getStockQuantity());
+        assertEquals(2, stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId).size());
+    }
+
+    @Test
+    void saleOfADeletedUserIsDeadLetteredAndLaterSalesStillFlush() throws Exception {
+        User buyer = persistUser();
+        userId = buyer.getId();
+        User deleted = persistUser();
+        persistProduct();
+        // No background flushes: the test decides when each round runs
+        ledger = startLedger(TimeUnit.HOURS.toMillis(1));
+
+        assertEquals(202, submitSale(deleted).getStatusCode());
+        assertThrows(IllegalStateException.class, () -> ledger.retireUser(deleted.getId()));
+
+        // Deleted anyway, as by a deletion that raced the sale
+        userRepository.deleteById(deleted.getId());
+        assertEquals(202, submitSale(buyer).getStatusCode());
+
+        for (int round = 0; round < 3; round++) {
+            ledger.flush();
+        }
+        assertTrue(ledger.awaitFlushed(Duration.ZERO), "the rejected entry must not block the ledger");
+
+        List<StockLedgerDeadLetter> deadLetters = deadLetterRepository.findByProductId(productId);
+        assertEquals(1, deadLetters.size());
+        assertEquals(deleted.getId(), deadLetters.get(0).getUserId());
+        assertNotNull(deadLetters.get(0).getError());
+        assertTrue(meterRegistry.get(WriteBehindStockLedger.DEAD_LETTERS_METRIC).counter().count() >= 1);
+
+        assertEquals(202, submitSale(buyer).getStatusCode());
+        ledger.flush();
+        assertTrue(ledger.awaitFlushed(Duration.ZERO));
+
+        List<StockTransaction> rows = stockTransactionRepository.findByProductIdOrderByTransactionDateDesc(productId);
+        assertEquals(2, rows.size());
+        rows.forEach(row -> assertEquals(buyer.getId(), row.getUser().getId()));
+        assertEquals(INITIAL_STOCK - 2, productRepository.findById(productId).orElseThrow().getStockQuantity());
+    }
+
+    private WriteBehindStockLedger startLedger() throws Exception {
+        return startLedger(5);
+    }
+
+    private WriteBehindStockLedger startLedger(long flushIntervalMs) throws Exception {
+        WriteBehindStockLedger started = new WriteBehindStockLedger(stockTransactionRepository, productRepository,
+                userRepository, stockTransactionService, transactionManager, deadLetterRepository, meterRegistry);
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "journalDirectory", journalDirectory.toString());
+        ReflectionTestUtils.setField(started, "partitionCount", 2);
+        ReflectionTestUtils.setField(started, "flushIntervalMs", flushIntervalMs);
+        started.start();
+        return started;
+    }
+
+    private Response submitSale(User actor) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(actor, null, actor.getAuthorities()));
+        try {
+            TransactionRequest request = new TransactionRequest();
+            request.setProductId(productId);
+            request.setTransactionType(TransactionType.SALE);
+            request.setQuantity(1);
+            return ledger.submit(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void writeJournal(List<StockLedgerEntry> entries) throws Exception {
+        try (StockLedgerJournal journal = new StockLedgerJournal(journalDirectory, 0, Long.MAX_VALUE)) {
+            journal.append(entries);
+        }
+    }
+
+    private StockLedgerEntry sale(long journalSequence, User buyer) {
+        return new StockLedgerEntry(journalSequence, productId, buyer.getId(), TransactionType.SALE, 1,
+                new BigDecimal("100.00"), null, LocalDateTime.now());
+    }
+
+    private Callable<Response> saleTask(User actor, CountDownLatch start) {
+        return () -> {
+            try {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(actor, null, actor.getAuthorities()));
+                start.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+                TransactionRequest request = new TransactionRequest();
+                request.setProductId(productId);
+                request.setTransactionType(TransactionType.SALE);
+                request.setQuantity(1);
+                return ledger.submit(request);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private User persistUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("write_behind_" + suffix);
+        user.setEmail("write_behind_" + suffix + "@example.com");
+        user.setPassword("not-used-in-this-test");
+        user.setFullName("Write Behind User " + suffix);
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+
+    private void persistProduct() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Category category = new Category();
+        category.setName("write-behind-category-" + suffix);
+        categoryId = categoryRepository.save(category).getId();
+
+        Product product = new Product();
+        product.setName("Write Behind Test Product " + suffix);
+        product.setSku("WB-SKU-" + suffix);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStockQuantity(INITIAL_STOCK);
+        product.setReorderLevel(0);
+        product.setCategory(categoryRepository.findById(categoryId).orElseThrow());
+
+        productId = productRepository.save(product).getId();
+    }
+}